@@ -0,0 +1,38 @@
+package demo.sse.benchmark;
+
+import demo.sse.domain.common.Performance;
+import demo.sse.server.common.file.FolderChangeEvent;
+
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.util.Arrays;
+
+public final class Payloads {
+
+    private Payloads() {
+    }
+
+    public static Performance performance() {
+        Performance performance = new Performance();
+        performance.setTime(1571234567890L);
+        performance.setCommittedVirtualMemorySize(6_512_345_088L);
+        performance.setTotalSwapSpaceSize(2_147_479_552L);
+        performance.setFreeSwapSpaceSize(2_047_479_552L);
+        performance.setTotalPhysicalMemorySize(16_663_822_336L);
+        performance.setFreePhysicalMemorySize(4_127_195_136L);
+        performance.setSystemCpuLoad(0.123456789);
+        performance.setProcessCpuLoad(0.012345678);
+        return performance;
+    }
+
+    public static FolderChangeEvent.Event folderChangeEvent() {
+        return new FolderChangeEvent.Event(StandardWatchEventKinds.ENTRY_MODIFY, Paths.get("/home/user/projects/demo/README.md"), 1);
+    }
+
+    public static FolderChangeEvent.Batch folderChangeBatch() {
+        return new FolderChangeEvent.Batch(Arrays.asList(
+                new FolderChangeEvent.Event(StandardWatchEventKinds.ENTRY_CREATE, Paths.get("/home/user/projects/demo/pom.xml"), 1),
+                folderChangeEvent(),
+                new FolderChangeEvent.Event(StandardWatchEventKinds.ENTRY_DELETE, Paths.get("/home/user/projects/demo/target"), 3)));
+    }
+}
@@ -0,0 +1,95 @@
+package demo.sse.benchmark;
+
+import demo.sse.server.common.concurrent.VirtualThreads;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class ThreadParkingBenchmark {
+
+    private static final byte[] FRAME = "id:0\ndata:The\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private static final Path PROC_STATUS = Paths.get("/proc/self/status");
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "platform";
+        int producers = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+
+        ExecutorService executor = "virtual".equals(mode)
+                ? VirtualThreads.newVirtualThreadPerTaskExecutor()
+                : Executors.newCachedThreadPool();
+
+        MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long rssBefore = residentSetSize();
+        long heapBefore = memoryMXBean.getHeapMemoryUsage().getUsed();
+
+        CountDownLatch started = new CountDownLatch(producers);
+        CountDownLatch stopped = new CountDownLatch(1);
+        int opened = 0;
+        long startTime = System.nanoTime();
+        try {
+            for (; opened < producers; opened++) {
+                executor.execute(() -> produce(started, stopped));
+            }
+        } catch (Throwable e) {
+            System.out.printf("Producer %d failed: %s%n", opened, e);
+        }
+        for (int i = opened; i < producers; i++) {
+            started.countDown();
+        }
+        started.await();
+        long openTime = System.nanoTime() - startTime;
+
+        System.gc();
+        TimeUnit.SECONDS.sleep(1);
+        long rss = residentSetSize() - rssBefore;
+        long heap = memoryMXBean.getHeapMemoryUsage().getUsed() - heapBefore;
+
+        System.out.printf("mode=%s, parked producers=%d/%d (no sockets, no server), start time=%d ms%n",
+                mode, opened, producers, TimeUnit.NANOSECONDS.toMillis(openTime));
+        System.out.printf("resident memory=%d KiB (%d bytes per producer), heap=%d KiB (%d bytes per producer)%n",
+                rss / 1024, opened > 0 ? rss / opened : 0, heap / 1024, opened > 0 ? heap / opened : 0);
+
+        stopped.countDown();
+        executor.shutdownNow();
+    }
+
+    private static void produce(CountDownLatch started, CountDownLatch stopped) {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream(FRAME.length);
+        started.countDown();
+        try {
+            do {
+                sink.reset();
+                sink.write(FRAME, 0, FRAME.length);
+            } while (!stopped.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long residentSetSize() throws IOException {
+        if (!Files.exists(PROC_STATUS)) {
+            return 0;
+        }
+
+        List<String> lines = Files.readAllLines(PROC_STATUS);
+        for (String line : lines) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+            }
+        }
+        return 0;
+    }
+}
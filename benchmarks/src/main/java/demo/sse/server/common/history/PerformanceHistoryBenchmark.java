@@ -0,0 +1,74 @@
+package demo.sse.server.common.history;
+
+import demo.sse.benchmark.Payloads;
+import demo.sse.domain.common.Performance;
+import demo.sse.server.common.sse.EventJournalFactory;
+import demo.sse.server.common.sse.SseFrame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PerformanceHistoryBenchmark {
+
+    private static final int DAY_RECORDS = 86400;
+
+    private Path directory;
+    private PerformanceHistory history;
+    private Performance performance;
+    private long dayStartTime;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("performance-history-");
+        history = new PerformanceHistory(null, EventJournalFactory.newEncoder(), true, directory.toString(),
+                1000, DAY_RECORDS, 7, 256);
+        performance = Payloads.performance();
+        dayStartTime = performance.getTime();
+        for (int i = 0; i < DAY_RECORDS; i++) {
+            append();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Performance append() throws IOException {
+        performance.setTime(performance.getTime() + 1000);
+        performance.setSystemCpuLoad(1 - performance.getSystemCpuLoad());
+        history.append(performance);
+        return performance;
+    }
+
+    @Benchmark
+    public long queryDay() {
+        HistoryCursor cursor = history.query(dayStartTime, dayStartTime + DAY_RECORDS * 1000L);
+        long bytes = 0;
+        for (SseFrame frame = cursor.next(); frame != null; frame = cursor.next()) {
+            bytes += frame.size();
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,53 @@
+package demo.sse.server.common.management;
+
+import demo.sse.benchmark.Payloads;
+import demo.sse.domain.common.Performance;
+import demo.sse.server.common.sse.SseStatistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MetricSourcesBenchmark {
+
+    @Param({"gc", "memory", "threads", "sse", "gc,memory,sse,threads"})
+    private String metrics;
+
+    private MetricSources metricSources;
+    private List<String> names;
+    private Performance performance;
+
+    @Setup
+    public void setup() {
+        SseStatistics statistics = new SseStatistics();
+        for (int i = 0; i < 10; i++) {
+            statistics.endpoint("benchmark/" + i).open();
+        }
+        metricSources = new MetricSources(Arrays.asList(
+                new GcMetricSource(), new MemoryMetricSource(), new ThreadMetricSource(), new SseMetricSource(statistics)));
+        names = metricSources.parse(metrics);
+        performance = Payloads.performance();
+    }
+
+    @Benchmark
+    public Performance extend() {
+        return metricSources.extend(performance, names);
+    }
+}
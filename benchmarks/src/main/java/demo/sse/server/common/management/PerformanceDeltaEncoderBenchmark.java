@@ -0,0 +1,46 @@
+package demo.sse.server.common.management;
+
+import demo.sse.benchmark.Payloads;
+import demo.sse.domain.common.Performance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PerformanceDeltaEncoderBenchmark {
+
+    @Param({"DELTA", "BINARY"})
+    private PerformanceEncoding encoding;
+
+    private PerformanceDeltaEncoder encoder;
+    private Performance performance;
+
+    @Setup
+    public void setup() {
+        encoder = new PerformanceDeltaEncoder(encoding, 60);
+        performance = Payloads.performance();
+    }
+
+    @Benchmark
+    public String encode() {
+        performance.setTime(performance.getTime() + 1000);
+        performance.setFreePhysicalMemorySize(performance.getFreePhysicalMemorySize() ^ 4096);
+        performance.setSystemCpuLoad(1 - performance.getSystemCpuLoad());
+        return encoder.encode(performance);
+    }
+}
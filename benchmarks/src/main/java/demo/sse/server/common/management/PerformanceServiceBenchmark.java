@@ -0,0 +1,36 @@
+package demo.sse.server.common.management;
+
+import demo.sse.domain.common.Performance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PerformanceServiceBenchmark {
+
+    private PerformanceService performanceService;
+
+    @Setup
+    public void setup() {
+        performanceService = new PerformanceService();
+    }
+
+    @Benchmark
+    public Performance getPerformance() {
+        return performanceService.getPerformance();
+    }
+}
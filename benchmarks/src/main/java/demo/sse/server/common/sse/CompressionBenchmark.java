@@ -0,0 +1,94 @@
+package demo.sse.server.common.sse;
+
+import demo.sse.benchmark.Payloads;
+import demo.sse.domain.common.Performance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CompressionBenchmark {
+
+    @Param({"per-connection-deflater", "shared-segment"})
+    private String strategy;
+
+    @Param({"1", "10", "100"})
+    private int connections;
+
+    private EventJournal journal;
+    private Performance performance;
+
+    private SseCompression compression;
+    private SseCompression.Stream[] streams;
+    private Deflater[] deflaters;
+    private byte[] buffer;
+
+    private long inputBytes;
+    private long outputBytes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        journal = EventJournalFactory.newJournal("benchmark", 256);
+        performance = Payloads.performance();
+
+        compression = EventJournalFactory.newCompression(true);
+        SseStatistics.Endpoint endpoint = new SseStatistics().endpoint("benchmark");
+        streams = new SseCompression.Stream[connections];
+        deflaters = new Deflater[connections];
+        for (int i = 0; i < connections; i++) {
+            streams[i] = compression.open(endpoint.open());
+            deflaters[i] = new Deflater(6, true);
+        }
+        buffer = new byte[64 * 1024];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (Deflater deflater : deflaters) {
+            deflater.end();
+        }
+        compression.destroy();
+        System.out.printf("%n%s, %d connections: compression ratio %.3f%n", strategy, connections,
+                (double) outputBytes / inputBytes);
+    }
+
+    @Benchmark
+    public long broadcast() {
+        performance.setTime(performance.getTime() + 1000);
+        SseFrame frame = journal.append(performance);
+
+        long written = 0;
+        if (strategy.equals("shared-segment")) {
+            for (SseCompression.Stream stream : streams) {
+                written += stream.write(frame).length;
+            }
+        } else {
+            for (Deflater deflater : deflaters) {
+                deflater.setInput(frame.getBytes());
+                written += deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+            }
+        }
+
+        inputBytes += (long) frame.size() * connections;
+        outputBytes += written;
+        return written;
+    }
+}
@@ -0,0 +1,37 @@
+package demo.sse.server.common.sse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+public final class EventJournalFactory {
+
+    private static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    private EventJournalFactory() {
+    }
+
+    public static ObjectMapper newObjectMapper() {
+        return OBJECT_MAPPER.copy();
+    }
+
+    public static SseFrameEncoder newEncoder() {
+        return new SseFrameEncoder(newObjectMapper());
+    }
+
+    public static SseAdmission newUnlimitedAdmission() {
+        return new SseAdmission(new SseStatistics(), Long.MAX_VALUE, Long.MAX_VALUE,
+                Double.MAX_VALUE, Double.MAX_VALUE, 0, 0, true);
+    }
+
+    public static SseHeartbeat newHeartbeat() {
+        return new SseHeartbeat(15000, 500);
+    }
+
+    public static SseCompression newCompression(boolean enabled) {
+        return new SseCompression(enabled, 6, 4);
+    }
+
+    public static EventJournal newJournal(String name, int capacity) {
+        return new EventJournal(name, capacity, newEncoder());
+    }
+}
@@ -0,0 +1,63 @@
+package demo.sse.server.common.sse;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import demo.sse.benchmark.Payloads;
+import demo.sse.domain.common.Performance;
+import demo.sse.server.common.file.FolderChangeEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private SseFrameEncoder encoder;
+
+    private Performance performance;
+    private FolderChangeEvent.Event folderChangeEvent;
+
+    @Setup
+    public void setup() {
+        objectMapper = EventJournalFactory.newObjectMapper();
+        encoder = EventJournalFactory.newEncoder();
+
+        performance = Payloads.performance();
+        folderChangeEvent = Payloads.folderChangeEvent();
+    }
+
+    @Benchmark
+    public byte[] serializePerformance() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(performance);
+    }
+
+    @Benchmark
+    public byte[] serializeFolderChangeEvent() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(folderChangeEvent);
+    }
+
+    @Benchmark
+    public SseFrame encodePerformanceFrame() {
+        return encoder.encode("1", performance);
+    }
+
+    @Benchmark
+    public SseFrame encodeFolderChangeEventFrame() {
+        return encoder.encode("1", folderChangeEvent);
+    }
+}
@@ -0,0 +1,116 @@
+package demo.sse.server.common.sse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SubscriberRegistryBenchmark {
+
+    private static final int THREADS = 4;
+
+    @Param({"copy-on-write", "sharded"})
+    private String registry;
+
+    @Param({"1000", "10000"})
+    private int subscribers;
+
+    private Registry<Object> target;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        target = registry.equals("sharded") ? new ShardedRegistry<>() : new CopyOnWriteRegistry<>();
+    }
+
+    @State(Scope.Thread)
+    public static class Churn {
+
+        private final Deque<Runnable> registrations = new ArrayDeque<>();
+
+        @Setup(Level.Iteration)
+        public void setup(SubscriberRegistryBenchmark benchmark) {
+            registrations.clear();
+            for (int i = 0; i < benchmark.subscribers / THREADS; i++) {
+                registrations.addLast(benchmark.target.add(new Object()));
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public void churn(Churn churn) {
+        churn.registrations.pollFirst().run();
+        churn.registrations.addLast(target.add(new Object()));
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public int churnAndBroadcast(Churn churn) {
+        churn.registrations.pollFirst().run();
+        churn.registrations.addLast(target.add(new Object()));
+
+        int count = 0;
+        for (Object subscriber : target) {
+            count += (subscriber != null) ? 1 : 0;
+        }
+        return count;
+    }
+
+    private interface Registry<T> extends Iterable<T> {
+
+        Runnable add(T subscriber);
+    }
+
+    private static class CopyOnWriteRegistry<T> implements Registry<T> {
+
+        private final List<T> subscribers = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Runnable add(T subscriber) {
+            subscribers.add(subscriber);
+            return () -> subscribers.remove(subscriber);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return subscribers.iterator();
+        }
+    }
+
+    private static class ShardedRegistry<T> implements Registry<T> {
+
+        private final SubscriberRegistry<T> subscribers = new SubscriberRegistry<>();
+
+        @Override
+        public Runnable add(T subscriber) {
+            return subscribers.add(subscriber)::remove;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return subscribers.iterator();
+        }
+    }
+}
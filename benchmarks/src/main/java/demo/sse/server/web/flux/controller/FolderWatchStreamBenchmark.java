@@ -0,0 +1,142 @@
+package demo.sse.server.web.flux.controller;
+
+import demo.sse.benchmark.Payloads;
+import demo.sse.server.common.file.FolderChangeEvent;
+import demo.sse.server.common.sse.EventJournal;
+import demo.sse.server.common.sse.EventJournalFactory;
+import demo.sse.server.common.sse.OverflowPolicy;
+import demo.sse.server.common.sse.SseFrame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.integration.dsl.MessageChannels;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.support.GenericMessage;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FolderWatchStreamBenchmark {
+
+    @Param({"1", "1000", "10000"})
+    private int subscribers;
+
+    @Param({"integration-channel", "reactor-multicast"})
+    private String dispatch;
+
+    private final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+    private final LongAdder writtenBytes = new LongAdder();
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    private Stream stream;
+    private FolderChangeEvent.Batch batch;
+
+    @Setup
+    public void setup() {
+        EventJournal journal = EventJournalFactory.newJournal("benchmark", 256);
+        stream = dispatch.equals("reactor-multicast")
+                ? new MulticastStream(new FolderWatchStream(journal, 256, OverflowPolicy.DROP_OLDEST))
+                : new ChannelStream(journal);
+        for (int i = 0; i < subscribers; i++) {
+            subscriptions.add(stream.subscribe(null)
+                    .map(this::wrap)
+                    .subscribe(buffer -> writtenBytes.add(buffer.readableByteCount())));
+        }
+        batch = Payloads.folderChangeBatch();
+    }
+
+    @TearDown
+    public void tearDown() {
+        subscriptions.dispose();
+    }
+
+    @Benchmark
+    public long publish() {
+        stream.publish(batch);
+        return writtenBytes.sum();
+    }
+
+    private DataBuffer wrap(SseFrame frame) {
+        return bufferFactory.wrap(frame.getBytes());
+    }
+
+    private interface Stream {
+
+        Flux<SseFrame> subscribe(String lastId);
+
+        void publish(Object payload);
+    }
+
+    private static class MulticastStream implements Stream {
+
+        private final FolderWatchStream stream;
+
+        MulticastStream(FolderWatchStream stream) {
+            this.stream = stream;
+        }
+
+        @Override
+        public Flux<SseFrame> subscribe(String lastId) {
+            return stream.subscribe(lastId);
+        }
+
+        @Override
+        public void publish(Object payload) {
+            stream.publish(payload);
+        }
+    }
+
+    private static class ChannelStream implements Stream {
+
+        private final EventJournal journal;
+        private final SubscribableChannel subscribableChannel = MessageChannels.publishSubscribe().get();
+
+        ChannelStream(EventJournal journal) {
+            this.journal = journal;
+        }
+
+        @Override
+        public Flux<SseFrame> subscribe(String lastId) {
+            return Flux.<SseFrame>create(sink -> {
+                MessageHandler handler = message -> sink.next(SseFrame.class.cast(message.getPayload()));
+                sink.onCancel(() -> subscribableChannel.unsubscribe(handler));
+                synchronized (journal) {
+                    journal.replay(lastId).forEach(sink::next);
+                    subscribableChannel.subscribe(handler);
+                }
+            }, FluxSink.OverflowStrategy.BUFFER)
+                    .onBackpressureBuffer(journal.getCapacity(), BufferOverflowStrategy.DROP_OLDEST);
+        }
+
+        @Override
+        public void publish(Object payload) {
+            synchronized (journal) {
+                subscribableChannel.send(new GenericMessage<>(journal.append(payload)));
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package demo.sse.server.web.mvc.controller;
+
+import demo.sse.benchmark.Payloads;
+import demo.sse.domain.common.Performance;
+import demo.sse.server.common.sse.BroadcastReport;
+import demo.sse.server.common.sse.EventJournalFactory;
+import demo.sse.server.common.sse.OverflowPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.servlet.mvc.method.annotation.InMemoryEmitterHandler;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SseEmittersBenchmark {
+
+    private static final int SINK_SIZE = 4096;
+
+    @Param({"1", "1000", "10000"})
+    private int emitters;
+
+    @Param({"4"})
+    private int dispatcherThreads;
+
+    private SseDispatcher dispatcher;
+    private SseEmitters sseEmitters;
+    private Performance performance;
+
+    @Setup
+    public void setup() throws IOException {
+        dispatcher = new SseDispatcher(new SseExecutors(false), EventJournalFactory.newHeartbeat(), EventJournalFactory.newCompression(false), dispatcherThreads, 16, OverflowPolicy.DROP_OLDEST, 0);
+        sseEmitters = new SseEmitters(EventJournalFactory.newJournal("benchmark", 256), dispatcher, EventJournalFactory.newUnlimitedAdmission());
+        for (int i = 0; i < emitters; i++) {
+            sseEmitters.add(InMemoryEmitterHandler.attach(new SseEmitter(), SINK_SIZE), null);
+        }
+        performance = Payloads.performance();
+    }
+
+    @TearDown
+    public void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Benchmark
+    public BroadcastReport send() {
+        return sseEmitters.send(performance);
+    }
+
+    @Benchmark
+    public BroadcastReport sendAndDeliver() {
+        BroadcastReport report = sseEmitters.send(performance);
+        while (report.getWrittenBytes() < report.getQueuedBytes()) {
+            LockSupport.parkNanos(1_000);
+        }
+        return report;
+    }
+}
@@ -0,0 +1,62 @@
+package org.springframework.web.servlet.mvc.method.annotation;
+
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+public class InMemoryEmitterHandler implements ResponseBodyEmitter.Handler {
+
+    private final byte[] sink;
+    private int position;
+    private long writtenBytes;
+
+    private InMemoryEmitterHandler(int sinkSize) {
+        this.sink = new byte[sinkSize];
+    }
+
+    public static <T extends ResponseBodyEmitter> T attach(T emitter, int sinkSize) throws IOException {
+        emitter.initialize(new InMemoryEmitterHandler(sinkSize));
+        return emitter;
+    }
+
+    @Override
+    public void send(Object data, MediaType mediaType) {
+        byte[] bytes = (data instanceof byte[]) ? (byte[]) data : data.toString().getBytes(StandardCharsets.UTF_8);
+        for (int offset = 0; offset < bytes.length; ) {
+            if (position == sink.length) {
+                position = 0;
+            }
+            int length = Math.min(bytes.length - offset, sink.length - position);
+            System.arraycopy(bytes, offset, sink, position, length);
+            position += length;
+            offset += length;
+        }
+        writtenBytes += bytes.length;
+    }
+
+    public long getWrittenBytes() {
+        return writtenBytes;
+    }
+
+    @Override
+    public void complete() {
+    }
+
+    @Override
+    public void completeWithError(Throwable failure) {
+    }
+
+    @Override
+    public void onTimeout(Runnable callback) {
+    }
+
+    @Override
+    public void onError(Consumer<Throwable> callback) {
+    }
+
+    @Override
+    public void onCompletion(Runnable callback) {
+    }
+}
@@ -0,0 +1,85 @@
+package demo.sse.client.load;
+
+import demo.sse.client.performance.PerformanceDecoder;
+import demo.sse.domain.common.Performance;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+
+class LoadConnection {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> EVENT_TYPE =
+            new ParameterizedTypeReference<ServerSentEvent<String>>() {
+            };
+
+    private final WebClient webClient;
+    private final String url;
+    private final Duration reconnectDelay;
+    private final LoadStatistics statistics;
+    private final PerformanceDecoder decoder;
+
+    private volatile String lastEventId;
+    private volatile boolean connectedBefore;
+
+    LoadConnection(WebClient webClient, String url, Duration reconnectDelay, LoadStatistics statistics) {
+        this.webClient = webClient;
+        this.url = url;
+        this.reconnectDelay = reconnectDelay;
+        this.statistics = statistics;
+
+        String encoding = PerformanceDecoder.encodingOf(url);
+        this.decoder = "json".equals(encoding) ? null : new PerformanceDecoder(encoding);
+    }
+
+    Disposable start() {
+        return Flux.defer(this::connect)
+                .doOnError(statistics::error)
+                .retryWhen(errors -> errors.delayElements(reconnectDelay))
+                .repeatWhen(completions -> completions.delayElements(reconnectDelay))
+                .subscribe(this::onEvent);
+    }
+
+    private Flux<ServerSentEvent<String>> connect() {
+        long startNanos = System.nanoTime();
+
+        WebClient.RequestHeadersSpec<?> request = webClient.get()
+                .uri(url)
+                .accept(MediaType.TEXT_EVENT_STREAM);
+        if (lastEventId != null) {
+            request = request.header("Last-Event-ID", lastEventId);
+        }
+
+        return request.exchange()
+                .flatMapMany(response -> {
+                    if (response.statusCode().isError()) {
+                        return response.createException().flatMapMany(Flux::error);
+                    }
+
+                    statistics.connected(System.nanoTime() - startNanos, connectedBefore);
+                    connectedBefore = true;
+                    return response.bodyToFlux(EVENT_TYPE)
+                            .doFinally(signal -> statistics.disconnected());
+                });
+    }
+
+    private void onEvent(ServerSentEvent<String> event) {
+        if (event.id() != null) {
+            lastEventId = event.id();
+        }
+        long receivedNanos = System.nanoTime();
+
+        long time;
+        if (decoder == null) {
+            time = (event.data() != null) ? LoadStatistics.extractTime(event.data()) : -1;
+        } else {
+            Performance performance = decoder.decode(event.id(), event.data());
+            time = (performance != null) ? performance.getTime() : -1;
+        }
+        statistics.event(event.id(), event.data(), time, receivedNanos);
+    }
+}
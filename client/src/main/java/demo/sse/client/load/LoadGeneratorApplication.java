@@ -0,0 +1,53 @@
+package demo.sse.client.load;
+
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+public class LoadGeneratorApplication {
+
+    private static final Duration REPORT_INTERVAL = Duration.ofSeconds(10);
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(3);
+
+    public static void main(String[] args) throws InterruptedException {
+        String url = args.length > 0 ? args[0] : "http://localhost:8080/sse/flux/performance?seconds=1";
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int ioThreads = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        int durationSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 60;
+        int connectionsPerSecond = args.length > 4 ? Integer.parseInt(args[4]) : 500;
+
+        System.out.printf("url=%s, connections=%d, I/O threads=%d, duration=%d s, ramp-up=%d connections/s%n",
+                url, connections, ioThreads, durationSeconds, connectionsPerSecond);
+
+        LoopResources loopResources = LoopResources.create("sse-load", ioThreads, true);
+        HttpClient httpClient = HttpClient.create(ConnectionProvider.newConnection())
+                .tcpConfiguration(tcpClient -> tcpClient.runOn(loopResources));
+        WebClient webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+
+        LoadStatistics statistics = new LoadStatistics();
+        Disposable.Composite disposables = Disposables.composite();
+
+        disposables.add(Flux.range(0, connections)
+                .delayElements(Duration.ofNanos(TimeUnit.SECONDS.toNanos(1) / connectionsPerSecond))
+                .subscribe(i -> disposables.add(new LoadConnection(webClient, url, RECONNECT_DELAY, statistics).start())));
+        disposables.add(Flux.interval(REPORT_INTERVAL)
+                .subscribe(i -> statistics.reportInterval(System.out)));
+
+        TimeUnit.SECONDS.sleep(durationSeconds);
+
+        disposables.dispose();
+        statistics.reportTotal(System.out);
+
+        loopResources.dispose();
+    }
+}
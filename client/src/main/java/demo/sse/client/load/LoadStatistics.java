@@ -0,0 +1,163 @@
+package demo.sse.client.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+class LoadStatistics {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private static final long FIRST_SEEN_RETENTION_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final Recorder latencyRecorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Recorder spreadRecorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Recorder connectRecorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+
+    private final Histogram totalLatency = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Histogram totalSpread = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Histogram totalConnect = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+
+    private final Map<String, Long> firstSeenNanos = new ConcurrentHashMap<>();
+
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    private final LongAdder connects = new LongAdder();
+    private final LongAdder reconnects = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder events = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    private final long startNanos = System.nanoTime();
+    private long intervalStartNanos = startNanos;
+    private long intervalEvents;
+    private long intervalBytes;
+
+    void connected(long connectNanos, boolean reconnect) {
+        activeConnections.incrementAndGet();
+        connects.increment();
+        if (reconnect) {
+            reconnects.increment();
+        }
+        connectRecorder.recordValue(clamp(TimeUnit.NANOSECONDS.toMicros(connectNanos)));
+    }
+
+    void disconnected() {
+        activeConnections.decrementAndGet();
+    }
+
+    void error(Throwable e) {
+        errors.increment();
+    }
+
+    void event(String id, String data, long time, long receivedNanos) {
+        events.increment();
+        if (data != null) {
+            bytes.add(data.length());
+        }
+        if (time > 0) {
+            long latencyMillis = System.currentTimeMillis() - time;
+            latencyRecorder.recordValue(clamp(TimeUnit.MILLISECONDS.toMicros(latencyMillis)));
+        }
+
+        if (id != null) {
+            Long firstSeen = firstSeenNanos.putIfAbsent(id, receivedNanos);
+            long spreadNanos = (firstSeen != null) ? receivedNanos - firstSeen : 0;
+            if (spreadNanos > FIRST_SEEN_RETENTION_NANOS) {
+                firstSeenNanos.put(id, receivedNanos);
+                spreadNanos = 0;
+            }
+            spreadRecorder.recordValue(clamp(TimeUnit.NANOSECONDS.toMicros(spreadNanos)));
+        }
+    }
+
+    synchronized void reportInterval(PrintStream out) {
+        long now = System.nanoTime();
+        Histogram latency = latencyRecorder.getIntervalHistogram();
+        Histogram spread = spreadRecorder.getIntervalHistogram();
+        Histogram connect = connectRecorder.getIntervalHistogram();
+        totalLatency.add(latency);
+        totalSpread.add(spread);
+        totalConnect.add(connect);
+
+        long eventsSum = events.sum();
+        long bytesSum = bytes.sum();
+        double seconds = (now - intervalStartNanos) / 1e9;
+        out.printf("[%6.1f s] active=%d, connects=%d, reconnects=%d, errors=%d, events/s=%.1f, KiB/s=%.1f%n",
+                (now - startNanos) / 1e9, activeConnections.get(), connects.sum(), reconnects.sum(), errors.sum(),
+                (eventsSum - intervalEvents) / seconds, (bytesSum - intervalBytes) / 1024.0 / seconds);
+        print(out, "event latency", latency);
+        print(out, "broadcast spread", spread);
+        print(out, "connect time", connect);
+
+        intervalStartNanos = now;
+        intervalEvents = eventsSum;
+        intervalBytes = bytesSum;
+        evictFirstSeen(now);
+    }
+
+    synchronized void reportTotal(PrintStream out) {
+        reportInterval(out);
+
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        out.printf("total: connects=%d, reconnects=%d, errors=%d, events=%d, events/s=%.1f, KiB/s=%.1f%n",
+                connects.sum(), reconnects.sum(), errors.sum(), events.sum(),
+                events.sum() / seconds, bytes.sum() / 1024.0 / seconds);
+        print(out, "event latency", totalLatency);
+        print(out, "broadcast spread", totalSpread);
+        print(out, "connect time", totalConnect);
+    }
+
+    private void evictFirstSeen(long now) {
+        Iterator<Long> iterator = firstSeenNanos.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next() > FIRST_SEEN_RETENTION_NANOS) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static void print(PrintStream out, String name, Histogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            return;
+        }
+        out.printf("  %-16s ms: count=%d, p50=%.3f, p90=%.3f, p99=%.3f, p99.9=%.3f, max=%.3f%n",
+                name, histogram.getTotalCount(),
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    private static long clamp(long micros) {
+        return Math.max(0, Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+    }
+
+    static long extractTime(String data) {
+        int index = data.indexOf("\"time\":");
+        if (index < 0) {
+            return -1;
+        }
+
+        long time = 0;
+        boolean digits = false;
+        for (int i = index + 7; i < data.length(); i++) {
+            char c = data.charAt(i);
+            if (c >= '0' && c <= '9') {
+                time = time * 10 + (c - '0');
+                digits = true;
+            } else if (digits || c != ' ') {
+                break;
+            }
+        }
+        return digits ? time : -1;
+    }
+}
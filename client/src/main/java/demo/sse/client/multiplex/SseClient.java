@@ -0,0 +1,188 @@
+package demo.sse.client.multiplex;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientResponse;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class SseClient implements Closeable {
+
+    private static final String TEXT_EVENT_STREAM = "text/event-stream";
+    private static final int MAX_BACKOFF_SHIFT = 6;
+
+    private final LoopResources loopResources;
+    private final ConnectionProvider connectionProvider;
+    private final HttpClient httpClient;
+    private final Scheduler handlerScheduler;
+    private final long reconnectMillis;
+    private final long maxReconnectMillis;
+    private final int prefetch;
+
+    public SseClient() {
+        this(2, 1000, 2, Duration.ofSeconds(3), Duration.ofMinutes(1), 256);
+    }
+
+    public SseClient(int ioThreads, int maxConnections, int handlerThreads,
+                     Duration reconnectDelay, Duration maxReconnectDelay, int prefetch) {
+        this.loopResources = LoopResources.create("sse-client", ioThreads, true);
+        this.connectionProvider = ConnectionProvider.fixed("sse-client", maxConnections);
+        this.httpClient = HttpClient.create(connectionProvider)
+                .tcpConfiguration(tcpClient -> tcpClient.runOn(loopResources));
+        this.handlerScheduler = Schedulers.newParallel("sse-client-handler", handlerThreads, true);
+        this.reconnectMillis = reconnectDelay.toMillis();
+        this.maxReconnectMillis = maxReconnectDelay.toMillis();
+        this.prefetch = prefetch;
+    }
+
+    public Flux<SseEvent> events(String url) {
+        return events(url, null);
+    }
+
+    public Flux<SseEvent> events(String url, String lastEventId) {
+        return Flux.defer(() -> {
+            Stream stream = new Stream(url, lastEventId);
+            return Flux.defer(stream::connect)
+                    .retryWhen(errors -> errors.concatMap(error -> {
+                        if (error instanceof SseClientException && !((SseClientException) error).isRetryable()) {
+                            return Mono.error(error);
+                        }
+                        return Mono.delay(stream.nextDelay(error));
+                    }))
+                    .repeatWhen(completions -> completions
+                            .takeWhile(completion -> !stream.stopped)
+                            .concatMap(completion -> Mono.delay(stream.nextDelay(null))));
+        });
+    }
+
+    public Disposable subscribe(String url, SseEventHandler handler) {
+        return subscribe(url, null, handler);
+    }
+
+    public Disposable subscribe(String url, String lastEventId, SseEventHandler handler) {
+        return events(url, lastEventId)
+                .publishOn(handlerScheduler, prefetch)
+                .subscribe(handler::onEvent, handler::onError, handler::onComplete);
+    }
+
+    @Override
+    public void close() {
+        handlerScheduler.dispose();
+        connectionProvider.dispose();
+        loopResources.dispose();
+    }
+
+    private class Stream {
+
+        private final String url;
+
+        private volatile String lastEventId;
+        private volatile long retryMillis = reconnectMillis;
+        private volatile int failures;
+        private volatile boolean stopped;
+
+        Stream(String url, String lastEventId) {
+            this.url = url;
+            this.lastEventId = lastEventId;
+        }
+
+        Flux<SseEvent> connect() {
+            SseEventParser parser = new SseEventParser();
+            String lastEventId = this.lastEventId;
+            return httpClient
+                    .headers(headers -> {
+                        headers.set(HttpHeaderNames.ACCEPT, TEXT_EVENT_STREAM);
+                        if (lastEventId != null) {
+                            headers.set("Last-Event-ID", lastEventId);
+                        }
+                    })
+                    .get()
+                    .uri(url)
+                    .response((response, body) -> {
+                        if (response.status().code() == HttpResponseStatus.NO_CONTENT.code()) {
+                            stopped = true;
+                            return Flux.<List<SseEvent>>empty();
+                        }
+                        SseClientException error = check(response);
+                        if (error != null) {
+                            return Flux.<List<SseEvent>>error(error);
+                        }
+                        return body.map(buffer -> parse(parser, buffer));
+                    })
+                    .concatMapIterable(events -> events)
+                    .doOnNext(event -> failures = 0);
+        }
+
+        Duration nextDelay(Throwable error) {
+            long delayMillis = retryMillis;
+            if (error instanceof SseClientException) {
+                delayMillis = Math.max(delayMillis, ((SseClientException) error).getRetryAfterMillis());
+            }
+            int attempt = failures++;
+            delayMillis = Math.min(maxReconnectMillis, delayMillis << Math.min(attempt, MAX_BACKOFF_SHIFT));
+            long jitterMillis = ThreadLocalRandom.current().nextLong(delayMillis / 2 + 1);
+            return Duration.ofMillis(delayMillis - jitterMillis);
+        }
+
+        private SseClientException check(HttpClientResponse response) {
+            int status = response.status().code();
+            if (status != HttpResponseStatus.OK.code()) {
+                boolean retryable = status >= 500 || status == HttpResponseStatus.TOO_MANY_REQUESTS.code();
+                return new SseClientException("Unexpected status " + status + " from " + url,
+                        status, parseRetryAfter(response.responseHeaders().get(HttpHeaderNames.RETRY_AFTER)), retryable);
+            }
+
+            String contentType = response.responseHeaders().get(HttpHeaderNames.CONTENT_TYPE);
+            if (contentType == null || !contentType.startsWith(TEXT_EVENT_STREAM)) {
+                return new SseClientException("Unexpected content type " + contentType + " from " + url,
+                        status, 0, false);
+            }
+            return null;
+        }
+
+        private List<SseEvent> parse(SseEventParser parser, ByteBuf buffer) {
+            List<SseEvent> events;
+            if (buffer.nioBufferCount() == 1) {
+                events = parser.parse(buffer.nioBuffer());
+            } else {
+                events = new ArrayList<>(2);
+                for (ByteBuffer nioBuffer : buffer.nioBuffers()) {
+                    parser.parse(nioBuffer, events);
+                }
+            }
+
+            if (parser.getLastEventId() != null) {
+                lastEventId = parser.getLastEventId();
+            }
+            if (parser.getRetryMillis() >= 0) {
+                retryMillis = parser.getRetryMillis();
+            }
+            return events;
+        }
+    }
+
+    private static long parseRetryAfter(String retryAfter) {
+        if (retryAfter == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(retryAfter.trim()) * 1000;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package demo.sse.client.multiplex;
+
+public class SseClientException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+    private final long retryAfterMillis;
+    private final boolean retryable;
+
+    SseClientException(String message, int status, long retryAfterMillis, boolean retryable) {
+        super(message);
+        this.status = status;
+        this.retryAfterMillis = retryAfterMillis;
+        this.retryable = retryable;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
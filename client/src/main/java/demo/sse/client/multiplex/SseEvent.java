@@ -0,0 +1,37 @@
+package demo.sse.client.multiplex;
+
+import java.util.StringJoiner;
+
+public class SseEvent {
+
+    private final String id;
+    private final String event;
+    private final String data;
+
+    public SseEvent(String id, String event, String data) {
+        this.id = id;
+        this.event = event;
+        this.data = data;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getEvent() {
+        return event;
+    }
+
+    public String getData() {
+        return data;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", SseEvent.class.getSimpleName() + "[", "]")
+                .add("id='" + id + "'")
+                .add("event='" + event + "'")
+                .add("data='" + data + "'")
+                .toString();
+    }
+}
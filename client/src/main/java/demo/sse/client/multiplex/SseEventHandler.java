@@ -0,0 +1,12 @@
+package demo.sse.client.multiplex;
+
+public interface SseEventHandler {
+
+    void onEvent(SseEvent event);
+
+    default void onError(Throwable throwable) {
+    }
+
+    default void onComplete() {
+    }
+}
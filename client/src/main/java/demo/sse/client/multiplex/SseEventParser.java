@@ -0,0 +1,243 @@
+package demo.sse.client.multiplex;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class SseEventParser {
+
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+    private static final byte COLON = ':';
+    private static final byte SPACE = ' ';
+
+    private static final byte[] BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+    private static final byte[] DATA = "data".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ID = "id".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EVENT = "event".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] RETRY = "retry".getBytes(StandardCharsets.US_ASCII);
+
+    private static final String DEFAULT_EVENT = "message";
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final int maxEventSize;
+
+    private byte[] line = new byte[INITIAL_CAPACITY];
+    private int lineLength;
+    private byte[] data = new byte[INITIAL_CAPACITY];
+    private int dataLength;
+
+    private String event;
+    private byte[] lastEventBytes;
+    private String lastEvent;
+
+    private String lastEventId;
+    private long retryMillis = -1;
+
+    private boolean started;
+    private boolean skipLf;
+
+    public SseEventParser() {
+        this(1 << 20);
+    }
+
+    public SseEventParser(int maxEventSize) {
+        this.maxEventSize = maxEventSize;
+    }
+
+    public String getLastEventId() {
+        return lastEventId;
+    }
+
+    public long getRetryMillis() {
+        return retryMillis;
+    }
+
+    public List<SseEvent> parse(ByteBuffer buffer) {
+        List<SseEvent> events = new ArrayList<>(2);
+        parse(buffer, events);
+        return events.isEmpty() ? Collections.emptyList() : events;
+    }
+
+    public void parse(ByteBuffer buffer, List<SseEvent> events) {
+        int position = buffer.position();
+        int limit = buffer.limit();
+
+        while (position < limit) {
+            if (skipLf) {
+                skipLf = false;
+                if (buffer.get(position) == LF) {
+                    position++;
+                    continue;
+                }
+            }
+
+            int end = indexOfEol(buffer, position, limit);
+            appendLine(buffer, position, end - position);
+            if (end == limit) {
+                position = limit;
+                break;
+            }
+
+            skipLf = (buffer.get(end) == CR);
+            position = end + 1;
+            processLine(events);
+        }
+        buffer.position(limit);
+    }
+
+    private static int indexOfEol(ByteBuffer buffer, int position, int limit) {
+        if (buffer.hasArray()) {
+            byte[] array = buffer.array();
+            int offset = buffer.arrayOffset();
+            for (int i = offset + position; i < offset + limit; i++) {
+                byte b = array[i];
+                if (b == LF || b == CR) {
+                    return i - offset;
+                }
+            }
+            return limit;
+        }
+
+        for (int i = position; i < limit; i++) {
+            byte b = buffer.get(i);
+            if (b == LF || b == CR) {
+                return i;
+            }
+        }
+        return limit;
+    }
+
+    private void appendLine(ByteBuffer buffer, int position, int length) {
+        if (length == 0) {
+            return;
+        }
+        if (lineLength + dataLength + length > maxEventSize) {
+            throw new IllegalStateException("SSE event exceeds " + maxEventSize + " bytes");
+        }
+        if (lineLength + length > line.length) {
+            line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+        }
+        if (buffer.hasArray()) {
+            System.arraycopy(buffer.array(), buffer.arrayOffset() + position, line, lineLength, length);
+        } else {
+            for (int i = 0; i < length; i++) {
+                line[lineLength + i] = buffer.get(position + i);
+            }
+        }
+        lineLength += length;
+    }
+
+    private void processLine(List<SseEvent> events) {
+        int length = lineLength;
+        lineLength = 0;
+
+        int offset = 0;
+        if (!started) {
+            started = true;
+            if (startsWith(line, 0, length, BOM)) {
+                offset = BOM.length;
+            }
+        }
+
+        if (length == offset) {
+            dispatch(events);
+            return;
+        }
+        if (line[offset] == COLON) {
+            return;
+        }
+
+        int nameEnd = offset;
+        while (nameEnd < length && line[nameEnd] != COLON) {
+            nameEnd++;
+        }
+        int valueStart = Math.min(nameEnd + 1, length);
+        if (valueStart < length && line[valueStart] == SPACE) {
+            valueStart++;
+        }
+
+        if (equals(line, offset, nameEnd, DATA)) {
+            appendData(valueStart, length);
+        } else if (equals(line, offset, nameEnd, ID)) {
+            if (indexOf(line, valueStart, length, (byte) 0) < 0) {
+                lastEventId = new String(line, valueStart, length - valueStart, StandardCharsets.UTF_8);
+            }
+        } else if (equals(line, offset, nameEnd, EVENT)) {
+            event = toEvent(valueStart, length);
+        } else if (equals(line, offset, nameEnd, RETRY)) {
+            retryMillis = parseRetry(valueStart, length, retryMillis);
+        }
+    }
+
+    private void appendData(int start, int end) {
+        int length = end - start;
+        if (dataLength + length + 1 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, dataLength + length + 1));
+        }
+        System.arraycopy(line, start, data, dataLength, length);
+        dataLength += length;
+        data[dataLength++] = LF;
+    }
+
+    private void dispatch(List<SseEvent> events) {
+        if (dataLength > 0) {
+            String value = new String(data, 0, dataLength - 1, StandardCharsets.UTF_8);
+            events.add(new SseEvent(lastEventId, (event != null) ? event : DEFAULT_EVENT, value));
+        }
+        dataLength = 0;
+        event = null;
+    }
+
+    private String toEvent(int start, int end) {
+        if (lastEventBytes != null && equals(line, start, end, lastEventBytes)) {
+            return lastEvent;
+        }
+        lastEventBytes = Arrays.copyOfRange(line, start, end);
+        lastEvent = new String(lastEventBytes, StandardCharsets.UTF_8);
+        return lastEvent;
+    }
+
+    private long parseRetry(int start, int end, long defaultValue) {
+        if (start == end || end - start > 18) {
+            return defaultValue;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            byte b = line[i];
+            if (b < '0' || b > '9') {
+                return defaultValue;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    private static boolean equals(byte[] bytes, int start, int end, byte[] expected) {
+        return end - start == expected.length && startsWith(bytes, start, end, expected);
+    }
+
+    private static boolean startsWith(byte[] bytes, int start, int end, byte[] prefix) {
+        if (end - start < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[start + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(byte[] bytes, int start, int end, byte value) {
+        for (int i = start; i < end; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
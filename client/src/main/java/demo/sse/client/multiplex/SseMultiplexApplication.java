@@ -0,0 +1,37 @@
+package demo.sse.client.multiplex;
+
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class SseMultiplexApplication {
+
+    public static void main(String[] args) throws InterruptedException {
+        List<String> urls = (args.length > 0)
+                ? Arrays.asList(args)
+                : Arrays.asList("http://localhost:8080/sse/flux/performance?seconds=1", "http://localhost:8080/sse/flux/folder-watch");
+
+        try (SseClient client = new SseClient()) {
+            Disposable.Composite disposables = Disposables.composite();
+            for (String url : urls) {
+                disposables.add(client.subscribe(url, new SseEventHandler() {
+                    @Override
+                    public void onEvent(SseEvent event) {
+                        System.out.println(url + " " + event);
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        System.out.println(url + " onError: " + throwable);
+                    }
+                }));
+            }
+
+            TimeUnit.MINUTES.sleep(10);
+            disposables.dispose();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package demo.sse.client.performance;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import demo.sse.domain.common.Performance;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+
+public class PerformanceDecoder {
+
+    private static final String[] KEYS = {"t", "cv", "ts", "fs", "tp", "fp", "sc", "pc"};
+
+    private static final int SYSTEM_CPU_LOAD = 6;
+    private static final int PROCESS_CPU_LOAD = 7;
+    private static final double CPU_LOAD_SCALE = 10_000;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final String encoding;
+
+    private final long[] values = new long[KEYS.length];
+    private final double[] cpuLoads = new double[KEYS.length];
+    private boolean synced;
+    private long lastId;
+
+    public PerformanceDecoder(String encoding) {
+        this.encoding = encoding;
+    }
+
+    public static String encodingOf(String url) {
+        int index = url.indexOf("encoding=");
+        if (index < 0) {
+            return "json";
+        }
+        int end = url.indexOf('&', index);
+        return url.substring(index + "encoding=".length(), (end < 0) ? url.length() : end).toLowerCase();
+    }
+
+    public Performance decode(String id, String data) {
+        try {
+            if ("json".equals(encoding)) {
+                return OBJECT_MAPPER.readValue(data, Performance.class);
+            }
+
+            long currentId = Long.parseLong(id);
+            boolean chained = synced && currentId == lastId + 1;
+            synced = "binary".equals(encoding) ? decodeBinary(data, chained) : decodeDelta(data, chained);
+            lastId = currentId;
+            return synced ? toPerformance() : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean decodeDelta(String data, boolean chained) throws IOException {
+        JsonNode delta = OBJECT_MAPPER.readTree(data);
+        boolean keyframe = delta.has("k");
+        if (!keyframe && !chained) {
+            return false;
+        }
+
+        for (int i = 0; i < KEYS.length; i++) {
+            JsonNode value = delta.get(KEYS[i]);
+            if (value == null) {
+                continue;
+            }
+            if (i == SYSTEM_CPU_LOAD || i == PROCESS_CPU_LOAD) {
+                cpuLoads[i] = value.asDouble();
+            } else {
+                values[i] = value.asLong();
+            }
+        }
+        return true;
+    }
+
+    private boolean decodeBinary(String data, boolean chained) {
+        byte[] bytes = Base64.getDecoder().decode(data);
+        int[] position = {0};
+
+        long header = readVarint(bytes, position);
+        boolean keyframe = (header & 1) != 0;
+        long mask = header >>> 1;
+        if (!keyframe && !chained) {
+            return false;
+        }
+
+        for (int i = 0; i < KEYS.length; i++) {
+            if ((mask & (1 << i)) == 0) {
+                continue;
+            }
+            long zigzag = readVarint(bytes, position);
+            long value = (zigzag >>> 1) ^ -(zigzag & 1);
+            values[i] = keyframe ? value : values[i] + value;
+            if (i == SYSTEM_CPU_LOAD || i == PROCESS_CPU_LOAD) {
+                cpuLoads[i] = values[i] / CPU_LOAD_SCALE;
+            }
+        }
+        return true;
+    }
+
+    private Performance toPerformance() {
+        Performance performance = new Performance();
+        performance.setTime(values[0]);
+        performance.setCommittedVirtualMemorySize(values[1]);
+        performance.setTotalSwapSpaceSize(values[2]);
+        performance.setFreeSwapSpaceSize(values[3]);
+        performance.setTotalPhysicalMemorySize(values[4]);
+        performance.setFreePhysicalMemorySize(values[5]);
+        performance.setSystemCpuLoad(cpuLoads[SYSTEM_CPU_LOAD]);
+        performance.setProcessCpuLoad(cpuLoads[PROCESS_CPU_LOAD]);
+        return performance;
+    }
+
+    private static long readVarint(byte[] bytes, int[] position) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = bytes[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package demo.sse.domain.common;
+
+import java.util.Map;
+import java.util.StringJoiner;
+
+public class ExtendedPerformance extends Performance {
+
+    private Map<String, Object> metrics;
+
+    public ExtendedPerformance() {
+    }
+
+    public ExtendedPerformance(Performance performance, Map<String, Object> metrics) {
+        setTime(performance.getTime());
+        setCommittedVirtualMemorySize(performance.getCommittedVirtualMemorySize());
+        setTotalSwapSpaceSize(performance.getTotalSwapSpaceSize());
+        setFreeSwapSpaceSize(performance.getFreeSwapSpaceSize());
+        setTotalPhysicalMemorySize(performance.getTotalPhysicalMemorySize());
+        setFreePhysicalMemorySize(performance.getFreePhysicalMemorySize());
+        setSystemCpuLoad(performance.getSystemCpuLoad());
+        setProcessCpuLoad(performance.getProcessCpuLoad());
+        this.metrics = metrics;
+    }
+
+    public Map<String, Object> getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(Map<String, Object> metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", ExtendedPerformance.class.getSimpleName() + "[", "]")
+                .add("performance=" + super.toString())
+                .add("metrics=" + metrics)
+                .toString();
+    }
+}
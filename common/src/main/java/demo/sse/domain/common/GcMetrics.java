@@ -0,0 +1,33 @@
+package demo.sse.domain.common;
+
+import java.util.StringJoiner;
+
+public class GcMetrics {
+
+    private long collectionCount;
+    private long collectionTime;
+
+    public long getCollectionCount() {
+        return collectionCount;
+    }
+
+    public void setCollectionCount(long collectionCount) {
+        this.collectionCount = collectionCount;
+    }
+
+    public long getCollectionTime() {
+        return collectionTime;
+    }
+
+    public void setCollectionTime(long collectionTime) {
+        this.collectionTime = collectionTime;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", GcMetrics.class.getSimpleName() + "[", "]")
+                .add("collectionCount=" + collectionCount)
+                .add("collectionTime=" + collectionTime)
+                .toString();
+    }
+}
@@ -0,0 +1,63 @@
+package demo.sse.domain.common;
+
+import java.util.StringJoiner;
+
+public class MemoryMetrics {
+
+    private long heapUsed;
+    private long heapCommitted;
+    private long heapMax;
+    private long nonHeapUsed;
+    private long nonHeapCommitted;
+
+    public long getHeapUsed() {
+        return heapUsed;
+    }
+
+    public void setHeapUsed(long heapUsed) {
+        this.heapUsed = heapUsed;
+    }
+
+    public long getHeapCommitted() {
+        return heapCommitted;
+    }
+
+    public void setHeapCommitted(long heapCommitted) {
+        this.heapCommitted = heapCommitted;
+    }
+
+    public long getHeapMax() {
+        return heapMax;
+    }
+
+    public void setHeapMax(long heapMax) {
+        this.heapMax = heapMax;
+    }
+
+    public long getNonHeapUsed() {
+        return nonHeapUsed;
+    }
+
+    public void setNonHeapUsed(long nonHeapUsed) {
+        this.nonHeapUsed = nonHeapUsed;
+    }
+
+    public long getNonHeapCommitted() {
+        return nonHeapCommitted;
+    }
+
+    public void setNonHeapCommitted(long nonHeapCommitted) {
+        this.nonHeapCommitted = nonHeapCommitted;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", MemoryMetrics.class.getSimpleName() + "[", "]")
+                .add("heapUsed=" + heapUsed)
+                .add("heapCommitted=" + heapCommitted)
+                .add("heapMax=" + heapMax)
+                .add("nonHeapUsed=" + nonHeapUsed)
+                .add("nonHeapCommitted=" + nonHeapCommitted)
+                .toString();
+    }
+}
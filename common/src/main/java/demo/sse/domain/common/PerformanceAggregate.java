@@ -0,0 +1,199 @@
+package demo.sse.domain.common;
+
+import java.util.StringJoiner;
+
+public class PerformanceAggregate {
+
+    private int resolution;
+
+    private long startTime;
+    private long endTime;
+    private int samples;
+
+    private Statistics committedVirtualMemorySize;
+
+    private Statistics totalSwapSpaceSize;
+    private Statistics freeSwapSpaceSize;
+
+    private Statistics totalPhysicalMemorySize;
+    private Statistics freePhysicalMemorySize;
+
+    private Statistics systemCpuLoad;
+    private Statistics processCpuLoad;
+
+    public int getResolution() {
+        return resolution;
+    }
+
+    public void setResolution(int resolution) {
+        this.resolution = resolution;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(long startTime) {
+        this.startTime = startTime;
+    }
+
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(long endTime) {
+        this.endTime = endTime;
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    public void setSamples(int samples) {
+        this.samples = samples;
+    }
+
+    public Statistics getCommittedVirtualMemorySize() {
+        return committedVirtualMemorySize;
+    }
+
+    public void setCommittedVirtualMemorySize(Statistics committedVirtualMemorySize) {
+        this.committedVirtualMemorySize = committedVirtualMemorySize;
+    }
+
+    public Statistics getTotalSwapSpaceSize() {
+        return totalSwapSpaceSize;
+    }
+
+    public void setTotalSwapSpaceSize(Statistics totalSwapSpaceSize) {
+        this.totalSwapSpaceSize = totalSwapSpaceSize;
+    }
+
+    public Statistics getFreeSwapSpaceSize() {
+        return freeSwapSpaceSize;
+    }
+
+    public void setFreeSwapSpaceSize(Statistics freeSwapSpaceSize) {
+        this.freeSwapSpaceSize = freeSwapSpaceSize;
+    }
+
+    public Statistics getTotalPhysicalMemorySize() {
+        return totalPhysicalMemorySize;
+    }
+
+    public void setTotalPhysicalMemorySize(Statistics totalPhysicalMemorySize) {
+        this.totalPhysicalMemorySize = totalPhysicalMemorySize;
+    }
+
+    public Statistics getFreePhysicalMemorySize() {
+        return freePhysicalMemorySize;
+    }
+
+    public void setFreePhysicalMemorySize(Statistics freePhysicalMemorySize) {
+        this.freePhysicalMemorySize = freePhysicalMemorySize;
+    }
+
+    public Statistics getSystemCpuLoad() {
+        return systemCpuLoad;
+    }
+
+    public void setSystemCpuLoad(Statistics systemCpuLoad) {
+        this.systemCpuLoad = systemCpuLoad;
+    }
+
+    public Statistics getProcessCpuLoad() {
+        return processCpuLoad;
+    }
+
+    public void setProcessCpuLoad(Statistics processCpuLoad) {
+        this.processCpuLoad = processCpuLoad;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", PerformanceAggregate.class.getSimpleName() + "[", "]")
+                .add("resolution=" + resolution)
+                .add("startTime=" + startTime)
+                .add("endTime=" + endTime)
+                .add("samples=" + samples)
+                .add("committedVirtualMemorySize=" + committedVirtualMemorySize)
+                .add("totalSwapSpaceSize=" + totalSwapSpaceSize)
+                .add("freeSwapSpaceSize=" + freeSwapSpaceSize)
+                .add("totalPhysicalMemorySize=" + totalPhysicalMemorySize)
+                .add("freePhysicalMemorySize=" + freePhysicalMemorySize)
+                .add("systemCpuLoad=" + systemCpuLoad)
+                .add("processCpuLoad=" + processCpuLoad)
+                .toString();
+    }
+
+    public static class Statistics {
+
+        private double min;
+        private double max;
+        private double average;
+
+        private double p50;
+        private double p90;
+        private double p99;
+
+        public double getMin() {
+            return min;
+        }
+
+        public void setMin(double min) {
+            this.min = min;
+        }
+
+        public double getMax() {
+            return max;
+        }
+
+        public void setMax(double max) {
+            this.max = max;
+        }
+
+        public double getAverage() {
+            return average;
+        }
+
+        public void setAverage(double average) {
+            this.average = average;
+        }
+
+        public double getP50() {
+            return p50;
+        }
+
+        public void setP50(double p50) {
+            this.p50 = p50;
+        }
+
+        public double getP90() {
+            return p90;
+        }
+
+        public void setP90(double p90) {
+            this.p90 = p90;
+        }
+
+        public double getP99() {
+            return p99;
+        }
+
+        public void setP99(double p99) {
+            this.p99 = p99;
+        }
+
+        @Override
+        public String toString() {
+            return new StringJoiner(", ", Statistics.class.getSimpleName() + "[", "]")
+                    .add("min=" + min)
+                    .add("max=" + max)
+                    .add("average=" + average)
+                    .add("p50=" + p50)
+                    .add("p90=" + p90)
+                    .add("p99=" + p99)
+                    .toString();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package demo.sse.domain.common;
+
+import java.util.Map;
+import java.util.StringJoiner;
+
+public class SseMetrics {
+
+    private long connections;
+    private Map<String, Long> endpointConnections;
+    private long events;
+    private long bytes;
+    private double eventsPerSecond;
+    private double bytesPerSecond;
+    private double averageBroadcastLatency;
+    private long maxBroadcastLatency;
+    private long compressedBytes;
+    private double compressionRatio;
+    private long compressionCpuTime;
+    private Map<String, Double> endpointCompressionRatios;
+    private Map<String, Long> endpointCompressionCpuTimes;
+
+    public long getConnections() {
+        return connections;
+    }
+
+    public void setConnections(long connections) {
+        this.connections = connections;
+    }
+
+    public Map<String, Long> getEndpointConnections() {
+        return endpointConnections;
+    }
+
+    public void setEndpointConnections(Map<String, Long> endpointConnections) {
+        this.endpointConnections = endpointConnections;
+    }
+
+    public long getEvents() {
+        return events;
+    }
+
+    public void setEvents(long events) {
+        this.events = events;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    public double getEventsPerSecond() {
+        return eventsPerSecond;
+    }
+
+    public void setEventsPerSecond(double eventsPerSecond) {
+        this.eventsPerSecond = eventsPerSecond;
+    }
+
+    public double getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    public void setBytesPerSecond(double bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    public double getAverageBroadcastLatency() {
+        return averageBroadcastLatency;
+    }
+
+    public void setAverageBroadcastLatency(double averageBroadcastLatency) {
+        this.averageBroadcastLatency = averageBroadcastLatency;
+    }
+
+    public long getMaxBroadcastLatency() {
+        return maxBroadcastLatency;
+    }
+
+    public void setMaxBroadcastLatency(long maxBroadcastLatency) {
+        this.maxBroadcastLatency = maxBroadcastLatency;
+    }
+
+    public long getCompressedBytes() {
+        return compressedBytes;
+    }
+
+    public void setCompressedBytes(long compressedBytes) {
+        this.compressedBytes = compressedBytes;
+    }
+
+    public double getCompressionRatio() {
+        return compressionRatio;
+    }
+
+    public void setCompressionRatio(double compressionRatio) {
+        this.compressionRatio = compressionRatio;
+    }
+
+    public long getCompressionCpuTime() {
+        return compressionCpuTime;
+    }
+
+    public void setCompressionCpuTime(long compressionCpuTime) {
+        this.compressionCpuTime = compressionCpuTime;
+    }
+
+    public Map<String, Double> getEndpointCompressionRatios() {
+        return endpointCompressionRatios;
+    }
+
+    public void setEndpointCompressionRatios(Map<String, Double> endpointCompressionRatios) {
+        this.endpointCompressionRatios = endpointCompressionRatios;
+    }
+
+    public Map<String, Long> getEndpointCompressionCpuTimes() {
+        return endpointCompressionCpuTimes;
+    }
+
+    public void setEndpointCompressionCpuTimes(Map<String, Long> endpointCompressionCpuTimes) {
+        this.endpointCompressionCpuTimes = endpointCompressionCpuTimes;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", SseMetrics.class.getSimpleName() + "[", "]")
+                .add("connections=" + connections)
+                .add("endpointConnections=" + endpointConnections)
+                .add("events=" + events)
+                .add("bytes=" + bytes)
+                .add("eventsPerSecond=" + eventsPerSecond)
+                .add("bytesPerSecond=" + bytesPerSecond)
+                .add("averageBroadcastLatency=" + averageBroadcastLatency)
+                .add("maxBroadcastLatency=" + maxBroadcastLatency)
+                .add("compressedBytes=" + compressedBytes)
+                .add("compressionRatio=" + compressionRatio)
+                .add("compressionCpuTime=" + compressionCpuTime)
+                .add("endpointCompressionRatios=" + endpointCompressionRatios)
+                .add("endpointCompressionCpuTimes=" + endpointCompressionCpuTimes)
+                .toString();
+    }
+}
@@ -0,0 +1,53 @@
+package demo.sse.domain.common;
+
+import java.util.StringJoiner;
+
+public class ThreadMetrics {
+
+    private int threadCount;
+    private int daemonThreadCount;
+    private int peakThreadCount;
+    private long totalStartedThreadCount;
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public void setThreadCount(int threadCount) {
+        this.threadCount = threadCount;
+    }
+
+    public int getDaemonThreadCount() {
+        return daemonThreadCount;
+    }
+
+    public void setDaemonThreadCount(int daemonThreadCount) {
+        this.daemonThreadCount = daemonThreadCount;
+    }
+
+    public int getPeakThreadCount() {
+        return peakThreadCount;
+    }
+
+    public void setPeakThreadCount(int peakThreadCount) {
+        this.peakThreadCount = peakThreadCount;
+    }
+
+    public long getTotalStartedThreadCount() {
+        return totalStartedThreadCount;
+    }
+
+    public void setTotalStartedThreadCount(long totalStartedThreadCount) {
+        this.totalStartedThreadCount = totalStartedThreadCount;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", ThreadMetrics.class.getSimpleName() + "[", "]")
+                .add("threadCount=" + threadCount)
+                .add("daemonThreadCount=" + daemonThreadCount)
+                .add("peakThreadCount=" + peakThreadCount)
+                .add("totalStartedThreadCount=" + totalStartedThreadCount)
+                .toString();
+    }
+}
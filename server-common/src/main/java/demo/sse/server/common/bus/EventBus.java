@@ -0,0 +1,167 @@
+package demo.sse.server.common.bus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+public class EventBus<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventBus.class);
+
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final String name;
+    private final int mask;
+    private final Object[] events;
+    private final long[] publishTimes;
+
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder publishNanos = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder deliveryNanos = new LongAdder();
+    private final AtomicLong maxDeliveryNanos = new AtomicLong();
+
+    public EventBus(String name, int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+
+        this.name = name;
+        this.mask = size - 1;
+        this.events = new Object[size];
+        this.publishTimes = new long[size];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCapacity() {
+        return events.length;
+    }
+
+    public int getSubscribers() {
+        return subscribers.size();
+    }
+
+    public long getDepth() {
+        return cursor.get() - minSequence(cursor.get());
+    }
+
+    public long getPublished() {
+        return published.sum();
+    }
+
+    public long getAveragePublishNanos() {
+        long count = published.sum();
+        return count == 0 ? 0 : publishNanos.sum() / count;
+    }
+
+    public long getAverageDeliveryNanos() {
+        long count = delivered.sum();
+        return count == 0 ? 0 : deliveryNanos.sum() / count;
+    }
+
+    public long getMaxDeliveryNanos() {
+        return maxDeliveryNanos.get();
+    }
+
+    public synchronized void publish(T event) {
+        long start = System.nanoTime();
+        long sequence = cursor.get() + 1;
+
+        while (sequence - minSequence(sequence - 1) > events.length) {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+
+        int index = (int) (sequence & mask);
+        events[index] = event;
+        publishTimes[index] = System.nanoTime();
+        cursor.set(sequence);
+
+        for (Subscriber subscriber : subscribers) {
+            LockSupport.unpark(subscriber.thread);
+        }
+
+        published.increment();
+        publishNanos.add(System.nanoTime() - start);
+    }
+
+    public synchronized void subscribe(String subscriberName, Consumer<? super T> handler) {
+        Subscriber subscriber = new Subscriber(handler, cursor.get());
+        subscriber.thread = new Thread(subscriber, "event-bus-" + name + "-" + subscriberName);
+        subscriber.thread.setDaemon(true);
+        subscribers.add(subscriber);
+        subscriber.thread.start();
+
+        logger.info("Event bus {} is subscribed: {}", name, subscriberName);
+    }
+
+    public void close() {
+        subscribers.forEach(subscriber -> {
+            subscriber.running = false;
+            LockSupport.unpark(subscriber.thread);
+        });
+        subscribers.clear();
+    }
+
+    private long minSequence(long defaultSequence) {
+        long min = defaultSequence;
+        for (Subscriber subscriber : subscribers) {
+            min = Math.min(min, subscriber.sequence);
+        }
+        return min;
+    }
+
+    private void recordDelivery(long nanos) {
+        delivered.increment();
+        deliveryNanos.add(nanos);
+        maxDeliveryNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private class Subscriber implements Runnable {
+
+        private final Consumer<? super T> handler;
+
+        private volatile long sequence;
+        private volatile boolean running = true;
+        private Thread thread;
+
+        Subscriber(Consumer<? super T> handler, long sequence) {
+            this.handler = handler;
+            this.sequence = sequence;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void run() {
+            while (running) {
+                long next = sequence + 1;
+                if (next > cursor.get()) {
+                    LockSupport.parkNanos(this, PARK_NANOS * 100);
+                    continue;
+                }
+
+                int index = (int) (next & mask);
+                T event = (T) events[index];
+                recordDelivery(System.nanoTime() - publishTimes[index]);
+
+                try {
+                    handler.accept(event);
+                } catch (Exception e) {
+                    logger.error("Event bus {} subscriber failed: {}", name, event, e);
+                }
+
+                sequence = next;
+            }
+        }
+    }
+}
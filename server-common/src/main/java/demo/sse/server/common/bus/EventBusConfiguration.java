@@ -0,0 +1,15 @@
+package demo.sse.server.common.bus;
+
+import demo.sse.server.common.file.FolderChangeEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class EventBusConfiguration {
+
+    @Bean(destroyMethod = "close")
+    EventBus<FolderChangeEvent> folderChangeEventBus(@Value("${event-bus.folder-watch.capacity:1024}") int capacity) {
+        return new EventBus<>("folder-watch", capacity);
+    }
+}
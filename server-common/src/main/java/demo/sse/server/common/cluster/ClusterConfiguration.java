@@ -0,0 +1,44 @@
+package demo.sse.server.common.cluster;
+
+import demo.sse.server.common.bus.EventBus;
+import demo.sse.server.common.file.FolderChangeEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "cluster.enabled", havingValue = "true")
+public class ClusterConfiguration {
+
+    @Bean(destroyMethod = "close")
+    ClusterTransport clusterTransport(@Value("${cluster.port:7600}") int port,
+                                      @Value("${cluster.peers:}") String[] peers,
+                                      @Value("${cluster.max-packet-size:1048576}") int maxPacketSize,
+                                      @Value("${cluster.peer.queue-capacity:1024}") int queueCapacity,
+                                      @Value("${cluster.peer.max-attempts:5}") int maxAttempts) {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (String peer : peers) {
+            int separator = peer.lastIndexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Cluster peer must be host:port: " + peer);
+            }
+            addresses.add(InetSocketAddress.createUnresolved(peer.substring(0, separator).trim(),
+                    Integer.parseInt(peer.substring(separator + 1).trim())));
+        }
+        return new TcpClusterTransport(port, addresses, maxPacketSize, queueCapacity, maxAttempts);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    ClusterRelay clusterRelay(@Value("${cluster.node-id:${random.uuid}}") String nodeId,
+                              EventBus<FolderChangeEvent> eventBus,
+                              ClusterTransport transport,
+                              @Value("${cluster.batch.window-millis:50}") long batchWindowMillis,
+                              @Value("${cluster.batch.max-events:256}") int batchMaxEvents) {
+        return new ClusterRelay(nodeId, eventBus, transport, batchWindowMillis, batchMaxEvents);
+    }
+}
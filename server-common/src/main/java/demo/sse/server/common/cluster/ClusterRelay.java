@@ -0,0 +1,209 @@
+package demo.sse.server.common.cluster;
+
+import demo.sse.server.common.bus.EventBus;
+import demo.sse.server.common.file.FolderChangeEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ClusterRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterRelay.class);
+
+    private static final int VERSION = 1;
+
+    private final String nodeId;
+    private final String origin;
+    private final EventBus<FolderChangeEvent> eventBus;
+    private final ClusterTransport transport;
+    private final long batchWindowMillis;
+    private final int batchMaxEvents;
+
+    private final Object flushLock = new Object();
+    private final List<FolderChangeEvent> pending = new ArrayList<>();
+    private int pendingEvents;
+    private long sequence;
+
+    private final Map<String, Long> lastSequences = new HashMap<>();
+
+    private final LongAdder sentPackets = new LongAdder();
+    private final LongAdder sentEvents = new LongAdder();
+    private final LongAdder receivedPackets = new LongAdder();
+    private final LongAdder receivedEvents = new LongAdder();
+    private final LongAdder duplicateEvents = new LongAdder();
+
+    private final ScheduledExecutorService scheduledExecutor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("cluster-relay-"));
+
+    ClusterRelay(String nodeId, EventBus<FolderChangeEvent> eventBus, ClusterTransport transport,
+                 long batchWindowMillis, int batchMaxEvents) {
+        this.nodeId = nodeId;
+        this.origin = nodeId + "@" + System.currentTimeMillis();
+        this.eventBus = eventBus;
+        this.transport = transport;
+        this.batchWindowMillis = batchWindowMillis;
+        this.batchMaxEvents = batchMaxEvents;
+    }
+
+    void start() {
+        transport.start(this::receive);
+        eventBus.subscribe("cluster", this::onLocalEvent);
+        scheduledExecutor.scheduleWithFixedDelay(this::flush, batchWindowMillis, batchWindowMillis, TimeUnit.MILLISECONDS);
+        logger.info("Cluster relay is started: node {}, batch window {} ms, batch max events {}", origin, batchWindowMillis, batchMaxEvents);
+    }
+
+    void close() {
+        scheduledExecutor.shutdownNow();
+        flush();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public long getSentPackets() {
+        return sentPackets.sum();
+    }
+
+    public long getSentEvents() {
+        return sentEvents.sum();
+    }
+
+    public long getReceivedPackets() {
+        return receivedPackets.sum();
+    }
+
+    public long getReceivedEvents() {
+        return receivedEvents.sum();
+    }
+
+    public long getDuplicateEvents() {
+        return duplicateEvents.sum();
+    }
+
+    private void onLocalEvent(FolderChangeEvent event) {
+        if (event.isRemote()) {
+            return;
+        }
+
+        boolean full;
+        synchronized (pending) {
+            pending.add(event);
+            pendingEvents += event.getBatch().getEvents().size();
+            full = pendingEvents >= batchMaxEvents;
+        }
+        if (full) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        synchronized (flushLock) {
+            byte[] packet;
+            int events;
+            synchronized (pending) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                packet = encode(pending);
+                events = pendingEvents;
+                pending.clear();
+                pendingEvents = 0;
+            }
+
+            try {
+                transport.send(packet);
+                sentPackets.increment();
+                sentEvents.add(events);
+                logger.debug("Cluster packet is sent: {} bytes, {} events", packet.length, events);
+            } catch (Exception e) {
+                logger.error("Cluster packet can't be sent", e);
+            }
+        }
+    }
+
+    private byte[] encode(List<FolderChangeEvent> changeEvents) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(VERSION);
+            out.writeUTF(origin);
+            out.writeInt(changeEvents.size());
+            for (FolderChangeEvent changeEvent : changeEvents) {
+                FolderChangeEvent.Batch batch = changeEvent.getBatch();
+                out.writeLong(++sequence);
+                out.writeInt(batch.getRawEvents());
+                out.writeInt(batch.getEvents().size());
+                for (FolderChangeEvent.Event event : batch.getEvents()) {
+                    out.writeUTF(event.getAction());
+                    out.writeUTF(event.getPath());
+                    out.writeInt(event.getCount());
+                }
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void receive(byte[] packet) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(packet))) {
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Cluster packet version is not supported: " + version);
+            }
+
+            String packetOrigin = in.readUTF();
+            if (packetOrigin.equals(origin)) {
+                return;
+            }
+            receivedPackets.increment();
+
+            int changeEvents = in.readInt();
+            for (int i = 0; i < changeEvents; i++) {
+                long eventSequence = in.readLong();
+                int rawEvents = in.readInt();
+                int size = in.readInt();
+                List<FolderChangeEvent.Event> events = new ArrayList<>(size);
+                for (int j = 0; j < size; j++) {
+                    events.add(new FolderChangeEvent.Event(in.readUTF(), in.readUTF(), in.readInt()));
+                }
+
+                if (accept(packetOrigin, eventSequence)) {
+                    receivedEvents.add(size);
+                    eventBus.publish(new FolderChangeEvent(events, rawEvents, packetOrigin));
+                } else {
+                    duplicateEvents.add(size);
+                    logger.debug("Cluster event is duplicate: {}#{}", packetOrigin, eventSequence);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cluster packet is malformed", e);
+        }
+    }
+
+    private boolean accept(String packetOrigin, long eventSequence) {
+        synchronized (lastSequences) {
+            Long lastSequence = lastSequences.get(packetOrigin);
+            if (lastSequence != null && eventSequence <= lastSequence) {
+                return false;
+            }
+            lastSequences.put(packetOrigin, eventSequence);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package demo.sse.server.common.cluster;
+
+import java.util.function.Consumer;
+
+public interface ClusterTransport {
+
+    void start(Consumer<byte[]> receiver);
+
+    void send(byte[] packet);
+
+    void close();
+}
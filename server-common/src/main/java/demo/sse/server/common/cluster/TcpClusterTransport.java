@@ -0,0 +1,263 @@
+package demo.sse.server.common.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class TcpClusterTransport implements ClusterTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(TcpClusterTransport.class);
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+    private static final long MIN_BACKOFF_MILLIS = 100;
+    private static final long MAX_BACKOFF_MILLIS = 10000;
+    private static final long POLL_MILLIS = 100;
+
+    private final int port;
+    private final int maxPacketSize;
+    private final List<Peer> peers = new ArrayList<>();
+
+    private final ExecutorService readers = Executors.newCachedThreadPool(new CustomizableThreadFactory("cluster-tcp-"));
+    private final ExecutorService senders = Executors.newCachedThreadPool(new CustomizableThreadFactory("cluster-peer-"));
+    private volatile ServerSocket serverSocket;
+
+    TcpClusterTransport(int port, List<InetSocketAddress> peers, int maxPacketSize, int queueCapacity, int maxAttempts) {
+        this.port = port;
+        this.maxPacketSize = maxPacketSize;
+        for (InetSocketAddress address : peers) {
+            this.peers.add(new Peer(address, queueCapacity, maxAttempts));
+        }
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) {
+        try {
+            serverSocket = new ServerSocket(port);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cluster port can't be bound: " + port, e);
+        }
+
+        logger.info("Cluster transport listens on port {}, peers: {}", port, peers);
+        readers.execute(() -> accept(receiver));
+        peers.forEach(senders::execute);
+    }
+
+    @Override
+    public void send(byte[] packet) {
+        for (Peer peer : peers) {
+            peer.offer(packet);
+        }
+    }
+
+    @Override
+    public void close() {
+        readers.shutdownNow();
+        closeQuietly(serverSocket);
+        peers.forEach(Peer::stop);
+        senders.shutdown();
+        try {
+            if (!senders.awaitTermination(CONNECT_TIMEOUT_MILLIS * 2, TimeUnit.MILLISECONDS)) {
+                logger.warn("Cluster peers aren't drained before close: {}", peers);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        senders.shutdownNow();
+        peers.forEach(Peer::close);
+    }
+
+    private void accept(Consumer<byte[]> receiver) {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                readers.execute(() -> read(socket, receiver));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    logger.error("Cluster connection can't be accepted", e);
+                }
+            }
+        }
+    }
+
+    private void read(Socket socket, Consumer<byte[]> receiver) {
+        logger.info("Cluster peer connected: {}", socket.getRemoteSocketAddress());
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+            while (true) {
+                int length = in.readInt();
+                if (length < 0 || length > maxPacketSize) {
+                    throw new IOException("Cluster packet size is invalid: " + length);
+                }
+
+                byte[] packet = new byte[length];
+                in.readFully(packet);
+                try {
+                    receiver.accept(packet);
+                } catch (Exception e) {
+                    logger.error("Cluster packet can't be received from {}", socket.getRemoteSocketAddress(), e);
+                }
+            }
+        } catch (EOFException e) {
+            logger.info("Cluster peer disconnected: {}", socket.getRemoteSocketAddress());
+        } catch (IOException e) {
+            logger.warn("Cluster peer failed: {}", socket.getRemoteSocketAddress(), e);
+        } finally {
+            closeQuietly(socket);
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            logger.debug("Cluster socket can't be closed", e);
+        }
+    }
+
+    private static class Peer implements Runnable {
+
+        private final InetSocketAddress address;
+        private final BlockingQueue<byte[]> queue;
+        private final int maxAttempts;
+
+        private volatile Socket socket;
+        private DataOutputStream out;
+        private long backoffMillis;
+        private boolean failed;
+        private boolean overflowed;
+        private volatile boolean stopped;
+
+        Peer(InetSocketAddress address, int queueCapacity, int maxAttempts) {
+            this.address = address;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.maxAttempts = maxAttempts;
+        }
+
+        void offer(byte[] packet) {
+            while (!queue.offer(packet)) {
+                if (queue.poll() != null) {
+                    onOverflow();
+                }
+            }
+        }
+
+        private synchronized void onOverflow() {
+            if (!overflowed) {
+                logger.warn("Cluster peer queue is full, oldest packets are dropped: {}", address);
+            }
+            overflowed = true;
+        }
+
+        private synchronized void onDelivered() {
+            overflowed = false;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!stopped || !queue.isEmpty()) {
+                    byte[] packet = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (packet != null) {
+                        deliver(packet);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                disconnect();
+            }
+        }
+
+        private void deliver(byte[] packet) throws InterruptedException {
+            for (int attempt = 1; ; attempt++) {
+                if ((out != null || connect()) && write(packet)) {
+                    backoffMillis = 0;
+                    onDelivered();
+                    return;
+                }
+                if (stopped || attempt >= maxAttempts) {
+                    logger.warn("Cluster packet to {} is dropped after {} attempts", address, attempt);
+                    return;
+                }
+
+                backoffMillis = (backoffMillis == 0) ? MIN_BACKOFF_MILLIS : Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+                Thread.sleep(backoffMillis);
+            }
+        }
+
+        private boolean write(byte[] packet) {
+            try {
+                out.writeInt(packet.length);
+                out.write(packet);
+                out.flush();
+                return true;
+            } catch (IOException e) {
+                logger.warn("Cluster packet can't be sent to {}: {}", address, e.toString());
+                disconnect();
+                return false;
+            }
+        }
+
+        private boolean connect() {
+            Socket candidate = new Socket();
+            try {
+                candidate.setTcpNoDelay(true);
+                candidate.connect(new InetSocketAddress(address.getHostString(), address.getPort()), CONNECT_TIMEOUT_MILLIS);
+                socket = candidate;
+                out = new DataOutputStream(new BufferedOutputStream(candidate.getOutputStream()));
+                if (failed) {
+                    logger.info("Cluster peer reconnected: {}", address);
+                }
+                failed = false;
+                return true;
+            } catch (IOException e) {
+                closeQuietly(candidate);
+                if (!failed) {
+                    logger.warn("Cluster peer can't be connected: {}: {}", address, e.toString());
+                }
+                failed = true;
+                return false;
+            }
+        }
+
+        void stop() {
+            stopped = true;
+        }
+
+        void close() {
+            closeQuietly(socket);
+        }
+
+        private void disconnect() {
+            close();
+            socket = null;
+            out = null;
+        }
+
+        @Override
+        public String toString() {
+            return address.getHostString() + ":" + address.getPort();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package demo.sse.server.common.file;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+class DirectorySnapshot {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Path folder;
+
+    private String[] names = new String[INITIAL_CAPACITY];
+    private long[] stamps = new long[INITIAL_CAPACITY];
+    private int size;
+
+    DirectorySnapshot(Path folder) {
+        this.folder = folder;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized void update(Path path) {
+        String name = path.getFileName().toString();
+        try {
+            put(name, stamp(Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS)));
+        } catch (IOException e) {
+            remove(name);
+        }
+    }
+
+    synchronized void remove(Path path) {
+        remove(path.getFileName().toString());
+    }
+
+    synchronized void load(int maxEntries) throws IOException {
+        int entries = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(folder)) {
+            for (Path path : stream) {
+                if (++entries > maxEntries) {
+                    throw new IOException("Folder has more than " + maxEntries + " entries: " + folder);
+                }
+
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                } catch (NoSuchFileException e) {
+                    continue;
+                }
+                put(path.getFileName().toString(), stamp(attributes));
+            }
+        }
+    }
+
+    synchronized List<FolderChangeEvent.Event> diff(DirectorySnapshot previous) {
+        List<FolderChangeEvent.Event> events = new ArrayList<>();
+        synchronized (previous) {
+            for (int index = 0; index < names.length; index++) {
+                if (names[index] == null) {
+                    continue;
+                }
+                int previousIndex = previous.indexOf(names[index]);
+                if (previousIndex < 0) {
+                    events.add(new FolderChangeEvent.Event(StandardWatchEventKinds.ENTRY_CREATE, folder.resolve(names[index]), 1));
+                } else if (previous.stamps[previousIndex] != stamps[index]) {
+                    events.add(new FolderChangeEvent.Event(StandardWatchEventKinds.ENTRY_MODIFY, folder.resolve(names[index]), 1));
+                }
+            }
+            for (int index = 0; index < previous.names.length; index++) {
+                if (previous.names[index] != null && indexOf(previous.names[index]) < 0) {
+                    events.add(new FolderChangeEvent.Event(StandardWatchEventKinds.ENTRY_DELETE, folder.resolve(previous.names[index]), 1));
+                }
+            }
+        }
+        return events;
+    }
+
+    private static long stamp(BasicFileAttributes attributes) {
+        return attributes.size() * 31 + attributes.lastModifiedTime().toMillis();
+    }
+
+    private int indexOf(String name) {
+        int mask = names.length - 1;
+        for (int index = hash(name) & mask; names[index] != null; index = (index + 1) & mask) {
+            if (names[index].equals(name)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private void put(String name, long stamp) {
+        if ((size + 1) * 2 > names.length) {
+            resize(names.length * 2);
+        }
+
+        int mask = names.length - 1;
+        int index = hash(name) & mask;
+        while (names[index] != null) {
+            if (names[index].equals(name)) {
+                stamps[index] = stamp;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+
+        names[index] = name;
+        stamps[index] = stamp;
+        size++;
+    }
+
+    private void remove(String name) {
+        int index = indexOf(name);
+        if (index < 0) {
+            return;
+        }
+
+        int mask = names.length - 1;
+        names[index] = null;
+        size--;
+
+        for (int next = (index + 1) & mask; names[next] != null; next = (next + 1) & mask) {
+            int home = hash(names[next]) & mask;
+            boolean movable = (next > index) ? (home <= index || home > next) : (home <= index && home > next);
+            if (movable) {
+                names[index] = names[next];
+                stamps[index] = stamps[next];
+                names[next] = null;
+                index = next;
+            }
+        }
+    }
+
+    private void resize(int capacity) {
+        String[] oldNames = names;
+        long[] oldStamps = stamps;
+
+        names = new String[capacity];
+        stamps = new long[capacity];
+        size = 0;
+
+        for (int index = 0; index < oldNames.length; index++) {
+            if (oldNames[index] != null) {
+                put(oldNames[index], oldStamps[index]);
+            }
+        }
+    }
+
+    private static int hash(String name) {
+        int hash = name.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,104 @@
+package demo.sse.server.common.file;
+
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+class FolderChangeCoalescer {
+
+    private final long windowNanos;
+    private final int maxEvents;
+
+    private final Map<Path, Change> changes = new LinkedHashMap<>();
+    private long windowStart;
+    private int rawEvents;
+
+    FolderChangeCoalescer(long windowMillis, int maxEvents) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxEvents = maxEvents;
+    }
+
+    boolean isEmpty() {
+        return rawEvents == 0;
+    }
+
+    int getRawEvents() {
+        return rawEvents;
+    }
+
+    void add(WatchEvent.Kind<?> kind, Path path) {
+        if (rawEvents == 0) {
+            windowStart = System.nanoTime();
+        }
+        rawEvents++;
+
+        Change change = changes.get(path);
+        if (change == null) {
+            changes.put(path, new Change(kind));
+        } else {
+            change.merge(kind);
+        }
+    }
+
+    boolean isFull() {
+        return rawEvents >= maxEvents;
+    }
+
+    boolean isDue() {
+        return rawEvents > 0 && (isFull() || remainingMillis() == 0);
+    }
+
+    long remainingMillis() {
+        long elapsed = System.nanoTime() - windowStart;
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(windowNanos - elapsed));
+    }
+
+    List<FolderChangeEvent.Event> drain() {
+        List<FolderChangeEvent.Event> events = new ArrayList<>(changes.size());
+        changes.forEach((path, change) -> {
+            if (change.kind != null) {
+                events.add(new FolderChangeEvent.Event(change.kind, path, change.count));
+            }
+        });
+
+        changes.clear();
+        rawEvents = 0;
+        return events;
+    }
+
+    private static class Change {
+
+        private WatchEvent.Kind<?> kind;
+        private int count;
+
+        Change(WatchEvent.Kind<?> kind) {
+            this.kind = kind;
+            this.count = 1;
+        }
+
+        void merge(WatchEvent.Kind<?> next) {
+            count++;
+
+            if (kind == null) {
+                kind = next;
+            } else if (kind == StandardWatchEventKinds.ENTRY_CREATE) {
+                if (next == StandardWatchEventKinds.ENTRY_DELETE) {
+                    kind = null;
+                }
+            } else if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
+                if (next != StandardWatchEventKinds.ENTRY_DELETE) {
+                    kind = StandardWatchEventKinds.ENTRY_MODIFY;
+                }
+            } else {
+                if (next == StandardWatchEventKinds.ENTRY_DELETE) {
+                    kind = next;
+                }
+            }
+        }
+    }
+}
@@ -1,32 +1,82 @@
 package demo.sse.server.common.file;
 
-import org.springframework.context.ApplicationEvent;
-
 import java.nio.file.Path;
 import java.nio.file.WatchEvent;
+import java.util.Collections;
+import java.util.List;
 import java.util.StringJoiner;
 
-public class FolderChangeEvent extends ApplicationEvent {
+public class FolderChangeEvent {
+
+    private final Batch batch;
+    private final String origin;
+
+    public FolderChangeEvent(List<Event> events, int rawEvents) {
+        this(events, rawEvents, null);
+    }
 
-    private final Event event;
+    public FolderChangeEvent(List<Event> events, int rawEvents, String origin) {
+        this.batch = new Batch(events, rawEvents);
+        this.origin = origin;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
 
-    public FolderChangeEvent(Object source, WatchEvent<Path> pathEvent, Path path) {
-        super(source);
-        this.event = new Event(pathEvent, path);
+    public String getOrigin() {
+        return origin;
     }
 
-    public Event getEvent() {
-        return event;
+    public boolean isRemote() {
+        return origin != null;
+    }
+
+    public static class Batch {
+
+        private final List<Event> events;
+        private final int rawEvents;
+
+        public Batch(List<Event> events) {
+            this(events, events.stream().mapToInt(Event::getCount).sum());
+        }
+
+        public Batch(List<Event> events, int rawEvents) {
+            this.events = Collections.unmodifiableList(events);
+            this.rawEvents = rawEvents;
+        }
+
+        public List<Event> getEvents() {
+            return events;
+        }
+
+        public int getRawEvents() {
+            return rawEvents;
+        }
+
+        @Override
+        public String toString() {
+            return new StringJoiner(", ", Batch.class.getSimpleName() + "[", "]")
+                    .add("events=" + events)
+                    .add("rawEvents=" + rawEvents)
+                    .toString();
+        }
     }
 
     public static class Event {
 
         private final String action;
         private final String path;
+        private final int count;
+
+        public Event(WatchEvent.Kind<?> kind, Path path, int count) {
+            this(kind.toString(), path.toString(), count);
+        }
 
-        public Event(WatchEvent<Path> event, Path path) {
-            this.action = event.kind().toString();
-            this.path = path.toString();
+        public Event(String action, String path, int count) {
+            this.action = action;
+            this.path = path;
+            this.count = count;
         }
 
         public String getAction() {
@@ -37,11 +87,16 @@ public class FolderChangeEvent extends ApplicationEvent {
             return path;
         }
 
+        public int getCount() {
+            return count;
+        }
+
         @Override
         public String toString() {
             return new StringJoiner(", ", Event.class.getSimpleName() + "[", "]")
                     .add("action='" + action + "'")
                     .add("path='" + path + "'")
+                    .add("count=" + count)
                     .toString();
         }
     }
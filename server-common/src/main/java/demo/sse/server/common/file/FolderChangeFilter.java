@@ -0,0 +1,138 @@
+package demo.sse.server.common.file;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+
+public class FolderChangeFilter {
+
+    public static final FolderChangeFilter ALL = new FolderChangeFilter(null, Collections.emptySet());
+
+    private static final List<WatchEvent.Kind<?>> KINDS = Arrays.asList(
+            StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+
+    private final String glob;
+    private final PathMatcher matcher;
+    private final boolean matchFileName;
+    private final Set<String> actions;
+
+    private FolderChangeFilter(String glob, Set<String> actions) {
+        this.glob = glob;
+        this.matcher = (glob != null) ? FileSystems.getDefault().getPathMatcher("glob:" + glob) : null;
+        this.matchFileName = (glob != null) && glob.indexOf('/') < 0 && glob.indexOf('\\') < 0;
+        this.actions = Collections.unmodifiableSet(actions);
+    }
+
+    public static FolderChangeFilter of(String glob, String actions) {
+        Set<String> kinds = new TreeSet<>();
+        if (actions != null && !actions.trim().isEmpty()) {
+            for (String action : actions.split(",")) {
+                kinds.add(toKind(action.trim()));
+            }
+        }
+
+        String pattern = (glob == null || glob.trim().isEmpty()) ? null : glob.trim();
+        if (pattern == null && (kinds.isEmpty() || kinds.size() == KINDS.size())) {
+            return ALL;
+        }
+        return new FolderChangeFilter(pattern, (kinds.size() == KINDS.size()) ? Collections.emptySet() : kinds);
+    }
+
+    private static String toKind(String action) {
+        String name = action.toUpperCase(Locale.ROOT);
+        for (WatchEvent.Kind<?> kind : KINDS) {
+            if (kind.name().equals(name) || kind.name().equals("ENTRY_" + name)) {
+                return kind.name();
+            }
+        }
+        throw new IllegalArgumentException("Unknown action: " + action + ", available: create, modify, delete");
+    }
+
+    public String getGlob() {
+        return glob;
+    }
+
+    public Set<String> getActions() {
+        return actions;
+    }
+
+    public String getQuery() {
+        StringJoiner query = new StringJoiner("&");
+        if (glob != null) {
+            query.add("glob=" + glob);
+        }
+        if (!actions.isEmpty()) {
+            query.add("actions=" + String.join(",", actions));
+        }
+        return query.toString();
+    }
+
+    public boolean test(FolderChangeEvent.Event event) {
+        if (!actions.isEmpty() && !actions.contains(event.getAction())) {
+            return false;
+        }
+        if (matcher == null) {
+            return true;
+        }
+
+        Path path = Paths.get(event.getPath());
+        Path matched = matchFileName ? path.getFileName() : path;
+        return matched != null && matcher.matches(matched);
+    }
+
+    public List<FolderChangeEvent.Event> filter(List<FolderChangeEvent.Event> events) {
+        if (this == ALL) {
+            return events;
+        }
+
+        List<FolderChangeEvent.Event> matched = null;
+        for (int i = 0; i < events.size(); i++) {
+            FolderChangeEvent.Event event = events.get(i);
+            if (test(event)) {
+                if (matched != null) {
+                    matched.add(event);
+                }
+            } else if (matched == null) {
+                matched = new ArrayList<>(events.subList(0, i));
+            }
+        }
+        return (matched != null) ? matched : events;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        FolderChangeFilter that = (FolderChangeFilter) o;
+        return Objects.equals(glob, that.glob) && actions.equals(that.actions);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(glob, actions);
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", FolderChangeFilter.class.getSimpleName() + "[", "]")
+                .add("glob='" + glob + "'")
+                .add("actions=" + actions)
+                .toString();
+    }
+}
@@ -1,84 +1,316 @@
 package demo.sse.server.common.file;
 
+import demo.sse.server.common.bus.EventBus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.event.ApplicationEventMulticaster;
-import org.springframework.context.event.SimpleApplicationEventMulticaster;
-import org.springframework.core.task.SimpleAsyncTaskExecutor;
-import org.springframework.scheduling.support.TaskUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardWatchEventKinds;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class FolderWatchService {
 
     private static final Logger logger = LoggerFactory.getLogger(FolderWatchService.class);
 
-    private final ApplicationEventPublisher eventPublisher;
+    private final EventBus<FolderChangeEvent> eventBus;
+    private final String[] roots;
+    private final boolean recursive;
+    private final long coalesceWindowMillis;
+    private final int coalesceMaxEvents;
+    private final int snapshotMaxEntries;
 
-    FolderWatchService(ApplicationEventPublisher eventPublisher) {
-        this.eventPublisher = eventPublisher;
+    private final Map<WatchKey, Path> folders = new ConcurrentHashMap<>();
+    private final Map<Path, WatchKey> keys = new ConcurrentHashMap<>();
+    private final Map<Path, DirectorySnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<Path, PendingRescan> pendingRescans = new ConcurrentHashMap<>();
+
+    private final ExecutorService rescanExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("folder-rescan-"));
+
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile WatchService watchService;
+
+    FolderWatchService(EventBus<FolderChangeEvent> eventBus,
+                       @Value("${folder-watch.roots:${user.home}}") String[] roots,
+                       @Value("${folder-watch.recursive:false}") boolean recursive,
+                       @Value("${folder-watch.coalesce.window-millis:250}") long coalesceWindowMillis,
+                       @Value("${folder-watch.coalesce.max-events:1000}") int coalesceMaxEvents,
+                       @Value("${folder-watch.snapshot.max-entries:200000}") int snapshotMaxEntries) {
+        this.eventBus = eventBus;
+        this.roots = roots;
+        this.recursive = recursive;
+        this.coalesceWindowMillis = coalesceWindowMillis;
+        this.coalesceMaxEvents = coalesceMaxEvents;
+        this.snapshotMaxEntries = snapshotMaxEntries;
+    }
+
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Folder watch service can't be created", e);
+        }
+
+        for (String root : roots) {
+            watch(root);
+        }
+
+        ExecutorService singleThreadExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("folder-watch-"));
+        singleThreadExecutor.execute(this::dispatch);
+    }
+
+    public void watch(String root) {
+        if (watchService == null) {
+            throw new IllegalStateException("Folder watch service is not started");
+        }
+
+        Path folder = Paths.get(root).toAbsolutePath().normalize();
+        try {
+            register(folder);
+            logger.info("Folder is watched: {}, recursive: {}", folder, recursive);
+        } catch (IOException e) {
+            logger.error("Folder can't be watched: {}", folder, e);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws IOException {
+        rescanExecutor.shutdownNow();
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void register(Path folder) throws IOException {
+        if (!recursive) {
+            registerFolder(folder);
+            return;
+        }
+
+        Files.walkFileTree(folder, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                registerFolder(dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                logger.debug("Folder can't be visited: {}", file, e);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void registerFolder(Path folder) throws IOException {
+        if (keys.containsKey(folder)) {
+            return;
+        }
+
+        WatchKey key = folder.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        folders.put(key, folder);
+        keys.put(folder, key);
+
+        rescanExecutor.execute(() -> loadSnapshot(folder));
     }
 
-    @Bean
-    ApplicationEventMulticaster applicationEventMulticaster() {
-        SimpleApplicationEventMulticaster eventMulticaster = new SimpleApplicationEventMulticaster();
-        eventMulticaster.setTaskExecutor(new SimpleAsyncTaskExecutor());
-        eventMulticaster.setErrorHandler(TaskUtils.LOG_AND_SUPPRESS_ERROR_HANDLER);
-        return eventMulticaster;
+    private void loadSnapshot(Path folder) {
+        DirectorySnapshot snapshot = new DirectorySnapshot(folder);
+        try {
+            snapshot.load(snapshotMaxEntries);
+            snapshots.put(folder, snapshot);
+            logger.debug("Folder snapshot is loaded: {}, entries: {}", folder, snapshot.size());
+        } catch (IOException e) {
+            logger.warn("Folder snapshot is skipped, overflows will not be recovered: {}", folder, e);
+        }
     }
 
-    public void start(String folderName) {
-        ExecutorService singleThreadExecutor = Executors.newSingleThreadExecutor();
-        singleThreadExecutor.execute(() -> {
-            try {
-                logger.info("Folder watch service started");
-
-                WatchService watchService = FileSystems.getDefault().newWatchService();
-                Path folder = Paths.get(folderName);
-                folder.register(watchService,
-                        StandardWatchEventKinds.ENTRY_CREATE,
-                        StandardWatchEventKinds.ENTRY_DELETE,
-                        StandardWatchEventKinds.ENTRY_MODIFY);
-
-                WatchKey key;
-                while ((key = watchService.take()) != null) {
+    private void scheduleRescan(Path folder) {
+        PendingRescan pending = new PendingRescan();
+        PendingRescan existing = pendingRescans.putIfAbsent(folder, pending);
+        if (existing != null) {
+            existing.repeat = true;
+            return;
+        }
+        rescanExecutor.execute(() -> rescan(folder));
+    }
+
+    private void rescan(Path folder) {
+        DirectorySnapshot snapshot = snapshots.get(folder);
+        if (snapshot == null) {
+            pendingRescans.remove(folder);
+            return;
+        }
+
+        DirectorySnapshot rescanned = new DirectorySnapshot(folder);
+        try {
+            rescanned.load(snapshotMaxEntries);
+        } catch (IOException e) {
+            snapshots.remove(folder);
+            pendingRescans.remove(folder);
+            logger.warn("Folder can't be rescanned: {}", folder, e);
+            return;
+        }
+
+        List<FolderChangeEvent.Event> events = rescanned.diff(snapshot);
+        snapshots.put(folder, rescanned);
+        PendingRescan pending = pendingRescans.remove(folder);
+        if (pending != null) {
+            pending.updates.forEach(rescanned::update);
+            if (pending.repeat) {
+                scheduleRescan(folder);
+            }
+        }
+
+        logger.info("Folder is rescanned after overflow: {}, changes: {}", folder, events.size());
+        if (recursive) {
+            for (FolderChangeEvent.Event event : events) {
+                if (StandardWatchEventKinds.ENTRY_CREATE.name().equals(event.getAction())) {
+                    registerCreated(Paths.get(event.getPath()));
+                }
+            }
+        }
+        if (!events.isEmpty()) {
+            eventBus.publish(new FolderChangeEvent(events, events.size()));
+        }
+    }
+
+    private void registerCreated(Path path) {
+        if (!Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+        try {
+            register(path);
+        } catch (IOException e) {
+            logger.warn("Created folder can't be watched: {}", path, e);
+        }
+    }
+
+    private void dispatch() {
+        try {
+            logger.info("Folder watch service started");
+
+            FolderChangeCoalescer coalescer = new FolderChangeCoalescer(coalesceWindowMillis, coalesceMaxEvents);
+            while (true) {
+                WatchKey key = coalescer.isEmpty()
+                        ? watchService.take()
+                        : watchService.poll(coalescer.remainingMillis(), TimeUnit.MILLISECONDS);
+
+                if (key != null) {
+                    Path folder = folders.get(key);
                     for (WatchEvent<?> event : key.pollEvents()) {
                         WatchEvent.Kind<?> kind = event.kind();
 
                         if (kind == StandardWatchEventKinds.OVERFLOW) {
+                            if (folder != null) {
+                                scheduleRescan(folder);
+                            } else {
+                                snapshots.keySet().forEach(this::scheduleRescan);
+                            }
+                            continue;
+                        }
+                        if (folder == null) {
                             continue;
                         }
 
                         WatchEvent<Path> pathEvent = (WatchEvent<Path>) event;
                         Path path = folder.resolve(pathEvent.context());
+                        coalescer.add(kind, path);
+
+                        if (pendingRescans.computeIfPresent(folder, (k, pending) -> pending.add(path)) == null) {
+                            DirectorySnapshot snapshot = snapshots.get(folder);
+                            if (snapshot != null) {
+                                if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
+                                    snapshot.remove(path);
+                                } else {
+                                    snapshot.update(path);
+                                }
+                            }
+                        }
 
-                        logger.info("Folder change event is published: {}", pathEvent);
-                        eventPublisher.publishEvent(new FolderChangeEvent(this, pathEvent, path));
+                        if (recursive && kind == StandardWatchEventKinds.ENTRY_CREATE) {
+                            registerCreated(path);
+                        }
+
+                        if (coalescer.isFull()) {
+                            publish(coalescer);
+                        }
                     }
 
-                    boolean valid = key.reset();
-                    if (!valid) {
-                        break;
+                    if (!key.reset()) {
+                        folders.remove(key);
+                        if (folder != null) {
+                            keys.remove(folder);
+                            snapshots.remove(folder);
+                            logger.info("Folder is no longer watched: {}", folder);
+                        }
                     }
                 }
 
-                watchService.close();
-                logger.info("Folder watch service finished");
-            } catch (Exception e) {
-                logger.error("Folder watch service failed", e);
+                if (coalescer.isDue()) {
+                    publish(coalescer);
+                }
             }
-        });
+        } catch (ClosedWatchServiceException e) {
+            logger.info("Folder watch service finished");
+        } catch (Exception e) {
+            logger.error("Folder watch service failed", e);
+        }
+    }
+
+    private void publish(FolderChangeCoalescer coalescer) {
+        int rawEvents = coalescer.getRawEvents();
+        List<FolderChangeEvent.Event> events = coalescer.drain();
+        if (events.isEmpty()) {
+            logger.info("Folder change events are cancelled out: {}", rawEvents);
+            return;
+        }
+
+        FolderChangeEvent changeEvent = new FolderChangeEvent(events, rawEvents);
+        logger.info("Folder change event is published: {}", changeEvent.getBatch());
+        eventBus.publish(changeEvent);
+    }
+
+    private static class PendingRescan {
+
+        private final Queue<Path> updates = new ConcurrentLinkedQueue<>();
+        private volatile boolean repeat;
+
+        PendingRescan add(Path path) {
+            updates.add(path);
+            return this;
+        }
     }
 }
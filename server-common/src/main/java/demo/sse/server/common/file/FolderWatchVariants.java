@@ -0,0 +1,102 @@
+package demo.sse.server.common.file;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+public class FolderWatchVariants<T> {
+
+    private final PathPrefixIndex<Map<FolderChangeFilter, T>> index = new PathPrefixIndex<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final int maxVariants;
+    private final Lifecycle<T> lifecycle;
+
+    public FolderWatchVariants(int maxVariants, Lifecycle<T> lifecycle) {
+        this.maxVariants = maxVariants;
+        this.lifecycle = lifecycle;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public int getMaxVariants() {
+        return maxVariants;
+    }
+
+    public T get(Path prefix, FolderChangeFilter filter) {
+        return compute(prefix, filter, variant -> {
+        });
+    }
+
+    public T compute(Path prefix, FolderChangeFilter filter, Consumer<T> action) {
+        AtomicReference<T> computed = new AtomicReference<>();
+        index.compute(prefix, (key, variants) -> {
+            Map<FolderChangeFilter, T> map = (variants != null) ? variants : new ConcurrentHashMap<>();
+            computed.set(map.compute(filter, (k, variant) -> (variant != null) ? apply(variant, action) : create(prefix, filter, action)));
+            return map;
+        });
+        return computed.get();
+    }
+
+    public Map<Map<FolderChangeFilter, T>, List<FolderChangeEvent.Event>> route(List<FolderChangeEvent.Event> events) {
+        return index.route(events);
+    }
+
+    public void evictIdle() {
+        for (Path prefix : new ArrayList<>(index.getPrefixes())) {
+            index.compute(prefix, (key, variants) -> {
+                if (variants == null) {
+                    return null;
+                }
+                for (FolderChangeFilter filter : new ArrayList<>(variants.keySet())) {
+                    variants.computeIfPresent(filter, (k, variant) -> lifecycle.isIdle(variant) ? evict(variant) : variant);
+                }
+                return variants.isEmpty() ? null : variants;
+            });
+        }
+    }
+
+    private T apply(T variant, Consumer<T> action) {
+        action.accept(variant);
+        return variant;
+    }
+
+    private T create(Path prefix, FolderChangeFilter filter, Consumer<T> action) {
+        if (size.incrementAndGet() > maxVariants) {
+            size.decrementAndGet();
+            throw lifecycle.reject("Folder watch variant limit exceeded: " + maxVariants);
+        }
+
+        T variant = lifecycle.create(prefix, filter);
+        try {
+            return apply(variant, action);
+        } catch (RuntimeException e) {
+            evict(variant);
+            throw e;
+        }
+    }
+
+    private T evict(T variant) {
+        size.decrementAndGet();
+        lifecycle.evict(variant);
+        return null;
+    }
+
+    public interface Lifecycle<T> {
+
+        T create(Path prefix, FolderChangeFilter filter);
+
+        boolean isIdle(T variant);
+
+        void evict(T variant);
+
+        RuntimeException reject(String reason);
+    }
+}
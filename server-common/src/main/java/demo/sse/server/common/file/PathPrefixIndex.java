@@ -0,0 +1,53 @@
+package demo.sse.server.common.file;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+public class PathPrefixIndex<T> {
+
+    private static final Path ALL = Paths.get("");
+
+    private final Map<Path, T> entries = new ConcurrentHashMap<>();
+
+    public static Path toPrefix(String path) {
+        return (path == null || path.isEmpty()) ? ALL : Paths.get(path).toAbsolutePath().normalize();
+    }
+
+    public T computeIfAbsent(Path prefix, Function<Path, T> factory) {
+        return entries.computeIfAbsent(prefix, factory);
+    }
+
+    public T compute(Path prefix, BiFunction<Path, T, T> function) {
+        return entries.compute(prefix, function);
+    }
+
+    public Set<Path> getPrefixes() {
+        return entries.keySet();
+    }
+
+    public Map<T, List<FolderChangeEvent.Event>> route(List<FolderChangeEvent.Event> events) {
+        Map<T, List<FolderChangeEvent.Event>> routes = new IdentityHashMap<>();
+        for (FolderChangeEvent.Event event : events) {
+            route(ALL, event, routes);
+            for (Path path = Paths.get(event.getPath()); path != null; path = path.getParent()) {
+                route(path, event, routes);
+            }
+        }
+        return routes;
+    }
+
+    private void route(Path prefix, FolderChangeEvent.Event event, Map<T, List<FolderChangeEvent.Event>> routes) {
+        T entry = entries.get(prefix);
+        if (entry != null) {
+            routes.computeIfAbsent(entry, key -> new ArrayList<>()).add(event);
+        }
+    }
+}
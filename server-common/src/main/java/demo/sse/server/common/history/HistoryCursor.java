@@ -0,0 +1,94 @@
+package demo.sse.server.common.history;
+
+import demo.sse.server.common.sse.SseFrame;
+import demo.sse.server.common.sse.SseFrameEncoder;
+
+import java.util.List;
+
+public class HistoryCursor {
+
+    public static final String EVENT = "history";
+
+    private final List<HistorySegment> segments;
+    private final int[] limits;
+    private final long toTime;
+    private final int chunkRecords;
+    private final SseFrameEncoder encoder;
+    private final StringBuilder builder;
+
+    private int segment;
+    private int index;
+    private long records;
+    private long lastTime = Long.MIN_VALUE;
+
+    HistoryCursor(List<HistorySegment> segments, int[] limits, long fromTime, long toTime, int chunkRecords, SseFrameEncoder encoder) {
+        this.segments = segments;
+        this.limits = limits;
+        this.toTime = toTime;
+        this.chunkRecords = chunkRecords;
+        this.encoder = encoder;
+        this.builder = new StringBuilder(chunkRecords * 128);
+        seek(fromTime);
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    public long getLastTime() {
+        return lastTime;
+    }
+
+    public SseFrame next() {
+        builder.setLength(0);
+        builder.append('[');
+
+        int chunk = 0;
+        while (chunk < chunkRecords && segment < segments.size()) {
+            if (index >= limits[segment]) {
+                segment++;
+                index = 0;
+                continue;
+            }
+
+            HistorySegment current = segments.get(segment);
+            if (current.getTime(index) > toTime) {
+                segment = segments.size();
+                break;
+            }
+
+            if (chunk++ > 0) {
+                builder.append(',');
+            }
+            builder.append('[')
+                    .append(current.getField(index, 0)).append(',')
+                    .append(current.getField(index, 1)).append(',')
+                    .append(current.getField(index, 2)).append(',')
+                    .append(current.getField(index, 3)).append(',')
+                    .append(current.getField(index, 4)).append(',')
+                    .append(current.getField(index, 5)).append(',')
+                    .append(Double.longBitsToDouble(current.getField(index, 6))).append(',')
+                    .append(Double.longBitsToDouble(current.getField(index, 7)))
+                    .append(']');
+            lastTime = current.getTime(index);
+            index++;
+        }
+
+        if (chunk == 0) {
+            return null;
+        }
+        records += chunk;
+        return encoder.encode(null, EVENT, builder.append(']'));
+    }
+
+    private void seek(long fromTime) {
+        while (segment < segments.size()) {
+            int limit = limits[segment];
+            if (limit > 0 && segments.get(segment).getTime(limit - 1) >= fromTime) {
+                index = segments.get(segment).indexOf(fromTime, limit);
+                return;
+            }
+            segment++;
+        }
+    }
+}
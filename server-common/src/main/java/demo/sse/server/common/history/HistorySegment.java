@@ -0,0 +1,108 @@
+package demo.sse.server.common.history;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+class HistorySegment {
+
+    static final int FIELDS = 8;
+    static final int RECORD_SIZE = FIELDS * Long.BYTES;
+
+    private static final int HEADER_SIZE = RECORD_SIZE;
+    private static final long MAGIC = 0x5353455045524631L;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int COUNT_OFFSET = 16;
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+
+    private volatile int count;
+
+    private HistorySegment(Path file, MappedByteBuffer buffer, int capacity, int count) {
+        this.file = file;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.count = count;
+    }
+
+    static HistorySegment create(Path file, int capacity) throws IOException {
+        MappedByteBuffer buffer = map(file, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+        buffer.putLong(MAGIC_OFFSET, MAGIC);
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+        buffer.putInt(COUNT_OFFSET, 0);
+        return new HistorySegment(file, buffer, capacity, 0);
+    }
+
+    static HistorySegment open(Path file) throws IOException {
+        MappedByteBuffer buffer = map(file, -1);
+        if (buffer.capacity() < HEADER_SIZE || buffer.getLong(MAGIC_OFFSET) != MAGIC) {
+            throw new IOException("File is not a history segment: " + file);
+        }
+
+        int capacity = buffer.getInt(CAPACITY_OFFSET);
+        int count = buffer.getInt(COUNT_OFFSET);
+        if (capacity <= 0 || count < 0 || count > capacity || buffer.capacity() < HEADER_SIZE + (long) capacity * RECORD_SIZE) {
+            throw new IOException("History segment is corrupted: " + file);
+        }
+        return new HistorySegment(file, buffer, capacity, count);
+    }
+
+    private static MappedByteBuffer map(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, (size < 0) ? channel.size() : size);
+        }
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    boolean isFull() {
+        return count == capacity;
+    }
+
+    long getTime(int index) {
+        return getField(index, 0);
+    }
+
+    long getField(int index, int field) {
+        return buffer.getLong(HEADER_SIZE + index * RECORD_SIZE + field * Long.BYTES);
+    }
+
+    void append(long[] record) {
+        int offset = HEADER_SIZE + count * RECORD_SIZE;
+        for (int field = 0; field < FIELDS; field++) {
+            buffer.putLong(offset + field * Long.BYTES, record[field]);
+        }
+        buffer.putInt(COUNT_OFFSET, count + 1);
+        count++;
+    }
+
+    int indexOf(long time, int limit) {
+        int low = 0;
+        int high = limit;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (getTime(middle) < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,181 @@
+package demo.sse.server.common.history;
+
+import demo.sse.domain.common.Performance;
+import demo.sse.server.common.management.PerformanceService;
+import demo.sse.server.common.sse.SseFrameEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class PerformanceHistory {
+
+    private static final Logger logger = LoggerFactory.getLogger(PerformanceHistory.class);
+
+    private static final String SEGMENT_PREFIX = "performance-";
+    private static final String SEGMENT_SUFFIX = ".history";
+
+    private final PerformanceService performanceService;
+    private final SseFrameEncoder encoder;
+    private final boolean enabled;
+    private final Path directory;
+    private final long periodMillis;
+    private final int segmentRecords;
+    private final int maxSegments;
+    private final int chunkRecords;
+
+    private final Deque<HistorySegment> segments = new ArrayDeque<>();
+    private final long[] record = new long[HistorySegment.FIELDS];
+    private long lastTime = Long.MIN_VALUE;
+
+    private final ScheduledExecutorService scheduledExecutor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("performance-history-"));
+
+    PerformanceHistory(PerformanceService performanceService, SseFrameEncoder encoder,
+                       @Value("${performance-history.enabled:true}") boolean enabled,
+                       @Value("${performance-history.directory:${java.io.tmpdir}/demo-spring-sse/performance-history/${server.port:8080}}") String directory,
+                       @Value("${performance-history.period-millis:1000}") long periodMillis,
+                       @Value("${performance-history.segment-records:86400}") int segmentRecords,
+                       @Value("${performance-history.max-segments:7}") int maxSegments,
+                       @Value("${performance-history.chunk-records:256}") int chunkRecords) {
+        this.performanceService = performanceService;
+        this.encoder = encoder;
+        this.enabled = enabled;
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        this.periodMillis = periodMillis;
+        this.segmentRecords = segmentRecords;
+        this.maxSegments = maxSegments;
+        this.chunkRecords = chunkRecords;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            logger.info("Performance history is disabled");
+            return;
+        }
+
+        try {
+            Files.createDirectories(directory);
+            load();
+        } catch (IOException e) {
+            logger.error("Performance history can't be loaded: {}", directory, e);
+            return;
+        }
+
+        logger.info("Performance history is recorded: {}, segments: {}, records per segment: {}, max segments: {}",
+                directory, segments.size(), segmentRecords, maxSegments);
+        scheduledExecutor.scheduleAtFixedRate(this::record, 0, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduledExecutor.shutdownNow();
+    }
+
+    public synchronized void append(Performance performance) throws IOException {
+        if (performance.getTime() <= lastTime) {
+            logger.debug("Performance sample is out of order: {}", performance);
+            return;
+        }
+
+        HistorySegment segment = segments.peekLast();
+        if (segment == null || segment.isFull()) {
+            segment = rotate(performance.getTime());
+        }
+
+        record[0] = performance.getTime();
+        record[1] = performance.getCommittedVirtualMemorySize();
+        record[2] = performance.getTotalSwapSpaceSize();
+        record[3] = performance.getFreeSwapSpaceSize();
+        record[4] = performance.getTotalPhysicalMemorySize();
+        record[5] = performance.getFreePhysicalMemorySize();
+        record[6] = Double.doubleToRawLongBits(performance.getSystemCpuLoad());
+        record[7] = Double.doubleToRawLongBits(performance.getProcessCpuLoad());
+        segment.append(record);
+        lastTime = performance.getTime();
+    }
+
+    public HistoryCursor query(long fromTime, long toTime) {
+        List<HistorySegment> snapshot;
+        int[] limits;
+        synchronized (this) {
+            snapshot = new ArrayList<>(segments);
+            limits = new int[snapshot.size()];
+            for (int i = 0; i < limits.length; i++) {
+                limits[i] = snapshot.get(i).getCount();
+            }
+        }
+        return new HistoryCursor(snapshot, limits, fromTime, toTime, chunkRecords, encoder);
+    }
+
+    private void record() {
+        try {
+            append(performanceService.getPerformance());
+        } catch (Exception e) {
+            logger.error("Performance sample can't be recorded", e);
+        }
+    }
+
+    private HistorySegment rotate(long time) throws IOException {
+        HistorySegment segment = HistorySegment.create(directory.resolve(SEGMENT_PREFIX + time + SEGMENT_SUFFIX), segmentRecords);
+        segments.addLast(segment);
+        logger.info("History segment is created: {}", segment.getFile());
+
+        while (segments.size() > maxSegments) {
+            HistorySegment oldest = segments.removeFirst();
+            Files.deleteIfExists(oldest.getFile());
+            logger.info("History segment is deleted: {}", oldest.getFile());
+        }
+        return segment;
+    }
+
+    private void load() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(Comparator.comparingLong(PerformanceHistory::segmentStartTime));
+
+        for (Path file : files) {
+            try {
+                HistorySegment segment = HistorySegment.open(file);
+                segments.addLast(segment);
+                if (segment.getCount() > 0) {
+                    lastTime = segment.getTime(segment.getCount() - 1);
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.warn("History segment is skipped: {}", file, e);
+            }
+        }
+        while (segments.size() > maxSegments) {
+            Files.deleteIfExists(segments.removeFirst().getFile());
+        }
+    }
+
+    private static long segmentStartTime(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package demo.sse.server.common.management;
+
+import demo.sse.domain.common.GcMetrics;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+@Component
+class GcMetricSource implements MetricSource {
+
+    private final GarbageCollectorMXBean[] garbageCollectorMXBeans;
+
+    GcMetricSource() {
+        this.garbageCollectorMXBeans = ManagementFactory.getGarbageCollectorMXBeans().toArray(new GarbageCollectorMXBean[0]);
+    }
+
+    @Override
+    public String getName() {
+        return "gc";
+    }
+
+    @Override
+    public GcMetrics collect() {
+        long collectionCount = 0;
+        long collectionTime = 0;
+        for (GarbageCollectorMXBean garbageCollectorMXBean : garbageCollectorMXBeans) {
+            collectionCount += Math.max(0, garbageCollectorMXBean.getCollectionCount());
+            collectionTime += Math.max(0, garbageCollectorMXBean.getCollectionTime());
+        }
+
+        GcMetrics metrics = new GcMetrics();
+        metrics.setCollectionCount(collectionCount);
+        metrics.setCollectionTime(collectionTime);
+        return metrics;
+    }
+}
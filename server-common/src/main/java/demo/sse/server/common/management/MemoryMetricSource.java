@@ -0,0 +1,37 @@
+package demo.sse.server.common.management;
+
+import demo.sse.domain.common.MemoryMetrics;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+
+@Component
+class MemoryMetricSource implements MetricSource {
+
+    private final MemoryMXBean memoryMXBean;
+
+    MemoryMetricSource() {
+        this.memoryMXBean = ManagementFactory.getMemoryMXBean();
+    }
+
+    @Override
+    public String getName() {
+        return "memory";
+    }
+
+    @Override
+    public MemoryMetrics collect() {
+        MemoryUsage heap = memoryMXBean.getHeapMemoryUsage();
+        MemoryUsage nonHeap = memoryMXBean.getNonHeapMemoryUsage();
+
+        MemoryMetrics metrics = new MemoryMetrics();
+        metrics.setHeapUsed(heap.getUsed());
+        metrics.setHeapCommitted(heap.getCommitted());
+        metrics.setHeapMax(heap.getMax());
+        metrics.setNonHeapUsed(nonHeap.getUsed());
+        metrics.setNonHeapCommitted(nonHeap.getCommitted());
+        return metrics;
+    }
+}
@@ -0,0 +1,8 @@
+package demo.sse.server.common.management;
+
+public interface MetricSource {
+
+    String getName();
+
+    Object collect();
+}
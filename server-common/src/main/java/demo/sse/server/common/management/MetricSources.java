@@ -0,0 +1,64 @@
+package demo.sse.server.common.management;
+
+import demo.sse.domain.common.ExtendedPerformance;
+import demo.sse.domain.common.Performance;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+@Component
+public class MetricSources {
+
+    private final Map<String, MetricSource> sources = new TreeMap<>();
+
+    MetricSources(List<MetricSource> sources) {
+        for (MetricSource source : sources) {
+            this.sources.put(source.getName(), source);
+        }
+    }
+
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(sources.keySet());
+    }
+
+    public List<String> parse(String metrics) {
+        if (metrics == null || metrics.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<String> names = new ArrayList<>();
+        for (String name : metrics.split(",")) {
+            name = name.trim();
+            if (!sources.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown metric source: " + name + ", available: " + sources.keySet());
+            }
+            if (!names.contains(name)) {
+                names.add(name);
+            }
+        }
+        Collections.sort(names);
+        return Collections.unmodifiableList(names);
+    }
+
+    public Performance extend(Performance performance, List<String> names) {
+        if (names.isEmpty()) {
+            return performance;
+        }
+
+        return new ExtendedPerformance(performance, collect(names));
+    }
+
+    public Map<String, Object> collect(List<String> names) {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        for (String name : names) {
+            metrics.put(name, sources.get(name).collect());
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,127 @@
+package demo.sse.server.common.management;
+
+import demo.sse.domain.common.Performance;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+public class PerformanceDeltaEncoder {
+
+    private static final String[] FIELDS = {"t", "cv", "ts", "fs", "tp", "fp", "sc", "pc"};
+    private static final int ALL_FIELDS = (1 << FIELDS.length) - 1;
+
+    private static final int SYSTEM_CPU_LOAD = 6;
+    private static final int PROCESS_CPU_LOAD = 7;
+    private static final double CPU_LOAD_SCALE = 10_000;
+
+    private static final int MAX_VARINT_BYTES = 10;
+
+    private final PerformanceEncoding encoding;
+    private final int keyframeInterval;
+
+    private final long[] previous = new long[FIELDS.length];
+    private final long[] current = new long[FIELDS.length];
+    private final byte[] buffer = new byte[MAX_VARINT_BYTES * (FIELDS.length + 1)];
+
+    private boolean started;
+    private int deltas;
+
+    public PerformanceDeltaEncoder(PerformanceEncoding encoding, int keyframeInterval) {
+        if (encoding == PerformanceEncoding.JSON) {
+            throw new IllegalArgumentException("Encoding is not a delta encoding: " + encoding);
+        }
+        this.encoding = encoding;
+        this.keyframeInterval = keyframeInterval;
+    }
+
+    public synchronized String encode(Performance performance) {
+        toValues(performance, current);
+
+        boolean keyframe = !started || deltas + 1 >= keyframeInterval;
+        int mask = 0;
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (keyframe || current[i] != previous[i]) {
+                mask |= 1 << i;
+            }
+        }
+
+        String data = write(current, previous, mask, keyframe);
+
+        System.arraycopy(current, 0, previous, 0, FIELDS.length);
+        started = true;
+        deltas = keyframe ? 0 : deltas + 1;
+        return data;
+    }
+
+    public synchronized String keyframe() {
+        if (!started) {
+            throw new IllegalStateException("No performance is encoded yet");
+        }
+        return write(previous, null, ALL_FIELDS, true);
+    }
+
+    private String write(long[] values, long[] base, int mask, boolean keyframe) {
+        return (encoding == PerformanceEncoding.BINARY)
+                ? writeBinary(values, base, mask, keyframe)
+                : writeJson(values, mask, keyframe);
+    }
+
+    private String writeJson(long[] values, int mask, boolean keyframe) {
+        StringBuilder sb = new StringBuilder(keyframe ? 192 : 64).append('{');
+        if (keyframe) {
+            sb.append("\"k\":1");
+        }
+        for (int i = 0; i < FIELDS.length; i++) {
+            if ((mask & (1 << i)) == 0) {
+                continue;
+            }
+            if (sb.length() > 1) {
+                sb.append(',');
+            }
+            sb.append('"').append(FIELDS[i]).append("\":");
+            if (i == SYSTEM_CPU_LOAD || i == PROCESS_CPU_LOAD) {
+                sb.append(Double.longBitsToDouble(values[i]));
+            } else {
+                sb.append(values[i]);
+            }
+        }
+        return sb.append('}').toString();
+    }
+
+    private String writeBinary(long[] values, long[] base, int mask, boolean keyframe) {
+        int position = writeVarint(buffer, 0, ((long) mask << 1) | (keyframe ? 1 : 0));
+        for (int i = 0; i < FIELDS.length; i++) {
+            if ((mask & (1 << i)) != 0) {
+                long value = keyframe ? values[i] : values[i] - base[i];
+                position = writeVarint(buffer, position, (value << 1) ^ (value >> 63));
+            }
+        }
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer, position));
+    }
+
+    private void toValues(Performance performance, long[] values) {
+        values[0] = performance.getTime();
+        values[1] = performance.getCommittedVirtualMemorySize();
+        values[2] = performance.getTotalSwapSpaceSize();
+        values[3] = performance.getFreeSwapSpaceSize();
+        values[4] = performance.getTotalPhysicalMemorySize();
+        values[5] = performance.getFreePhysicalMemorySize();
+        values[SYSTEM_CPU_LOAD] = toValue(performance.getSystemCpuLoad());
+        values[PROCESS_CPU_LOAD] = toValue(performance.getProcessCpuLoad());
+    }
+
+    private long toValue(double cpuLoad) {
+        return (encoding == PerformanceEncoding.BINARY)
+                ? Math.round(cpuLoad * CPU_LOAD_SCALE)
+                : Double.doubleToLongBits(cpuLoad);
+    }
+
+    private static int writeVarint(byte[] buffer, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+}
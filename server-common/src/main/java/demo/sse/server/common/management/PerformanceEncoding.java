@@ -0,0 +1,7 @@
+package demo.sse.server.common.management;
+
+public enum PerformanceEncoding {
+    JSON,
+    DELTA,
+    BINARY
+}
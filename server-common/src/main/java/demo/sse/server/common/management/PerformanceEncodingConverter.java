@@ -0,0 +1,15 @@
+package demo.sse.server.common.management;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+@Component
+class PerformanceEncodingConverter implements Converter<String, PerformanceEncoding> {
+
+    @Override
+    public PerformanceEncoding convert(String source) {
+        return PerformanceEncoding.valueOf(source.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,125 @@
+package demo.sse.server.common.management;
+
+import demo.sse.domain.common.Performance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.function.Function;
+
+public class PerformanceProjection {
+
+    public static final PerformanceProjection ALL = new PerformanceProjection(null, Collections.emptyList());
+
+    private static final String TIME = "time";
+    private static final Map<String, Function<Performance, Object>> GETTERS = new LinkedHashMap<>();
+
+    static {
+        GETTERS.put(TIME, Performance::getTime);
+        GETTERS.put("committedVirtualMemorySize", Performance::getCommittedVirtualMemorySize);
+        GETTERS.put("totalSwapSpaceSize", Performance::getTotalSwapSpaceSize);
+        GETTERS.put("freeSwapSpaceSize", Performance::getFreeSwapSpaceSize);
+        GETTERS.put("totalPhysicalMemorySize", Performance::getTotalPhysicalMemorySize);
+        GETTERS.put("freePhysicalMemorySize", Performance::getFreePhysicalMemorySize);
+        GETTERS.put("systemCpuLoad", Performance::getSystemCpuLoad);
+        GETTERS.put("processCpuLoad", Performance::getProcessCpuLoad);
+    }
+
+    private final List<String> fields;
+    private final List<String> metrics;
+
+    private PerformanceProjection(List<String> fields, List<String> metrics) {
+        this.fields = fields;
+        this.metrics = metrics;
+    }
+
+    public static PerformanceProjection of(String fields, List<String> metrics) {
+        List<String> projected = null;
+        if (fields != null && !fields.trim().isEmpty()) {
+            List<String> requested = new ArrayList<>();
+            for (String field : fields.split(",")) {
+                field = field.trim();
+                if (!GETTERS.containsKey(field)) {
+                    throw new IllegalArgumentException("Unknown field: " + field + ", available: " + GETTERS.keySet());
+                }
+                requested.add(field);
+            }
+
+            projected = new ArrayList<>();
+            for (String field : GETTERS.keySet()) {
+                if (field.equals(TIME) || requested.contains(field)) {
+                    projected.add(field);
+                }
+            }
+            projected = (projected.size() == GETTERS.size()) ? null : Collections.unmodifiableList(projected);
+        }
+
+        if (projected == null && metrics.isEmpty()) {
+            return ALL;
+        }
+        return new PerformanceProjection(projected, metrics);
+    }
+
+    public boolean isAll() {
+        return this == ALL;
+    }
+
+    public List<String> getMetrics() {
+        return metrics;
+    }
+
+    public String getQuery() {
+        StringJoiner query = new StringJoiner("&");
+        if (fields != null) {
+            query.add("fields=" + String.join(",", fields));
+        }
+        if (!metrics.isEmpty()) {
+            query.add("metrics=" + String.join(",", metrics));
+        }
+        return query.toString();
+    }
+
+    public Object apply(Performance performance, MetricSources metricSources) {
+        if (fields == null) {
+            return metricSources.extend(performance, metrics);
+        }
+
+        Map<String, Object> projected = new LinkedHashMap<>();
+        for (String field : fields) {
+            projected.put(field, GETTERS.get(field).apply(performance));
+        }
+        if (!metrics.isEmpty()) {
+            projected.put("metrics", metricSources.collect(metrics));
+        }
+        return projected;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PerformanceProjection that = (PerformanceProjection) o;
+        return Objects.equals(fields, that.fields) && metrics.equals(that.metrics);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fields, metrics);
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", PerformanceProjection.class.getSimpleName() + "[", "]")
+                .add("fields=" + fields)
+                .add("metrics=" + metrics)
+                .toString();
+    }
+}
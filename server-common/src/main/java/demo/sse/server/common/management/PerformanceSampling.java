@@ -0,0 +1,229 @@
+package demo.sse.server.common.management;
+
+import demo.sse.domain.common.Performance;
+import demo.sse.server.common.sse.SseStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class PerformanceSampling {
+
+    private static final Logger logger = LoggerFactory.getLogger(PerformanceSampling.class);
+
+    private static final double RECOVERY_FACTOR = 0.5;
+    private static final long TICK_SLACK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final SseStatistics statistics;
+    private final int[] tiers;
+    private final double maxCpuLoad;
+    private final double maxLatencyMillis;
+    private final long checkNanos;
+    private final int recoveryChecks;
+
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile int backoff;
+    private volatile double cpuLoad;
+    private volatile double latencyMillis;
+
+    private long lastCheckNanos = System.nanoTime();
+    private long lastLatencyNanos;
+    private long lastLatencyCount;
+    private int calmChecks;
+
+    PerformanceSampling(SseStatistics statistics,
+                        @Value("${sse.performance.sampling.tiers:1,2,5,10,30,60}") int[] tiers,
+                        @Value("${sse.performance.sampling.max-cpu-load:0.8}") double maxCpuLoad,
+                        @Value("${sse.performance.sampling.max-latency-millis:250}") double maxLatencyMillis,
+                        @Value("${sse.performance.sampling.check-millis:5000}") long checkMillis,
+                        @Value("${sse.performance.sampling.recovery-checks:3}") int recoveryChecks) {
+        if (tiers.length == 0) {
+            throw new IllegalArgumentException("At least one sampling tier is required");
+        }
+        this.statistics = statistics;
+        this.tiers = tiers.clone();
+        Arrays.sort(this.tiers);
+        if (this.tiers[0] < 1) {
+            throw new IllegalArgumentException("Sampling tier must be at least 1 s: " + this.tiers[0]);
+        }
+        this.maxCpuLoad = maxCpuLoad;
+        this.maxLatencyMillis = maxLatencyMillis;
+        this.checkNanos = TimeUnit.MILLISECONDS.toNanos(checkMillis);
+        this.recoveryChecks = recoveryChecks;
+    }
+
+    public int[] getTiers() {
+        return tiers.clone();
+    }
+
+    public int getBackoff() {
+        return backoff;
+    }
+
+    public int getTier(int requestedSeconds) {
+        for (int tier : tiers) {
+            if (tier >= requestedSeconds) {
+                return tier;
+            }
+        }
+        return tiers[tiers.length - 1];
+    }
+
+    public int getIntervalSeconds(int tier) {
+        int index = Arrays.binarySearch(tiers, getTier(tier));
+        return tiers[Math.min(index + backoff, tiers.length - 1)];
+    }
+
+    public State getState(int tier) {
+        return new State(getTier(tier), getIntervalSeconds(tier), backoff, cpuLoad, latencyMillis);
+    }
+
+    public Schedule schedule(int tier) {
+        return new Schedule(getTier(tier));
+    }
+
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public void sampled(Performance performance) {
+        boolean changed;
+        synchronized (this) {
+            long nanos = System.nanoTime();
+            if (nanos - lastCheckNanos < checkNanos) {
+                return;
+            }
+            lastCheckNanos = nanos;
+            changed = check(Math.max(0, performance.getProcessCpuLoad()), getLatencyMillis());
+        }
+
+        if (changed) {
+            listeners.forEach(Runnable::run);
+        }
+    }
+
+    private boolean check(double cpuLoad, double latencyMillis) {
+        this.cpuLoad = cpuLoad;
+        this.latencyMillis = latencyMillis;
+
+        if (cpuLoad > maxCpuLoad || latencyMillis > maxLatencyMillis) {
+            calmChecks = 0;
+            if (backoff < tiers.length - 1) {
+                backoff++;
+                logger.warn("Sampling interval widened to backoff {} (CPU load {}, broadcast latency {} ms)", backoff, cpuLoad, latencyMillis);
+                return true;
+            }
+            return false;
+        }
+
+        if (cpuLoad > maxCpuLoad * RECOVERY_FACTOR || latencyMillis > maxLatencyMillis * RECOVERY_FACTOR) {
+            calmChecks = 0;
+            return false;
+        }
+        if (backoff > 0 && ++calmChecks >= recoveryChecks) {
+            calmChecks = 0;
+            backoff--;
+            logger.info("Sampling interval narrowed to backoff {} (CPU load {}, broadcast latency {} ms)", backoff, cpuLoad, latencyMillis);
+            return true;
+        }
+        return false;
+    }
+
+    private double getLatencyMillis() {
+        long latencyNanos = 0;
+        long latencyCount = 0;
+        for (SseStatistics.Endpoint endpoint : statistics.getEndpoints()) {
+            latencyNanos += endpoint.getLatencyNanos();
+            latencyCount += endpoint.getLatencyCount();
+        }
+
+        long periodLatencyCount = latencyCount - lastLatencyCount;
+        double latencyMillis = (periodLatencyCount > 0)
+                ? (latencyNanos - lastLatencyNanos) / 1e6 / periodLatencyCount
+                : 0;
+        lastLatencyNanos = latencyNanos;
+        lastLatencyCount = latencyCount;
+        return latencyMillis;
+    }
+
+    public class Schedule {
+
+        private final int tier;
+        private long lastNanos;
+        private boolean started;
+
+        private Schedule(int tier) {
+            this.tier = tier;
+        }
+
+        public int getTier() {
+            return tier;
+        }
+
+        public synchronized boolean due() {
+            long nanos = System.nanoTime();
+            if (started && nanos - lastNanos < TimeUnit.SECONDS.toNanos(getIntervalSeconds(tier)) - TICK_SLACK_NANOS) {
+                return false;
+            }
+            started = true;
+            lastNanos = nanos;
+            return true;
+        }
+    }
+
+    public static class State {
+
+        private final int requestedInterval;
+        private final int interval;
+        private final int backoff;
+        private final double cpuLoad;
+        private final double latencyMillis;
+
+        private State(int requestedInterval, int interval, int backoff, double cpuLoad, double latencyMillis) {
+            this.requestedInterval = requestedInterval;
+            this.interval = interval;
+            this.backoff = backoff;
+            this.cpuLoad = cpuLoad;
+            this.latencyMillis = latencyMillis;
+        }
+
+        public int getRequestedInterval() {
+            return requestedInterval;
+        }
+
+        public int getInterval() {
+            return interval;
+        }
+
+        public int getBackoff() {
+            return backoff;
+        }
+
+        public double getCpuLoad() {
+            return cpuLoad;
+        }
+
+        public double getLatencyMillis() {
+            return latencyMillis;
+        }
+
+        @Override
+        public String toString() {
+            return new StringJoiner(", ", State.class.getSimpleName() + "[", "]")
+                    .add("requestedInterval=" + requestedInterval)
+                    .add("interval=" + interval)
+                    .add("backoff=" + backoff)
+                    .add("cpuLoad=" + cpuLoad)
+                    .add("latencyMillis=" + latencyMillis)
+                    .toString();
+        }
+    }
+}
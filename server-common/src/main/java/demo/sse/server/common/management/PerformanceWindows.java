@@ -0,0 +1,148 @@
+package demo.sse.server.common.management;
+
+import demo.sse.domain.common.Performance;
+import demo.sse.domain.common.PerformanceAggregate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class PerformanceWindows {
+
+    private static final int COMMITTED_VIRTUAL_MEMORY_SIZE = 0;
+    private static final int TOTAL_SWAP_SPACE_SIZE = 1;
+    private static final int FREE_SWAP_SPACE_SIZE = 2;
+    private static final int TOTAL_PHYSICAL_MEMORY_SIZE = 3;
+    private static final int FREE_PHYSICAL_MEMORY_SIZE = 4;
+    private static final int SYSTEM_CPU_LOAD = 5;
+    private static final int PROCESS_CPU_LOAD = 6;
+    private static final int METRICS = 7;
+
+    private final int[] resolutions;
+    private final Window[] windows;
+    private final double[] sample = new double[METRICS];
+
+    public PerformanceWindows(int samplePeriodSeconds, int... resolutions) {
+        this.resolutions = resolutions.clone();
+        this.windows = new Window[resolutions.length];
+        for (int i = 0; i < resolutions.length; i++) {
+            if (resolutions[i] < samplePeriodSeconds || resolutions[i] % samplePeriodSeconds != 0) {
+                throw new IllegalArgumentException("Resolution " + resolutions[i]
+                        + " s is not a multiple of sample period " + samplePeriodSeconds + " s");
+            }
+            this.windows[i] = new Window(resolutions[i], resolutions[i] / samplePeriodSeconds);
+        }
+    }
+
+    public int[] getResolutions() {
+        return resolutions.clone();
+    }
+
+    public List<PerformanceAggregate> add(Performance performance) {
+        sample[COMMITTED_VIRTUAL_MEMORY_SIZE] = performance.getCommittedVirtualMemorySize();
+        sample[TOTAL_SWAP_SPACE_SIZE] = performance.getTotalSwapSpaceSize();
+        sample[FREE_SWAP_SPACE_SIZE] = performance.getFreeSwapSpaceSize();
+        sample[TOTAL_PHYSICAL_MEMORY_SIZE] = performance.getTotalPhysicalMemorySize();
+        sample[FREE_PHYSICAL_MEMORY_SIZE] = performance.getFreePhysicalMemorySize();
+        sample[SYSTEM_CPU_LOAD] = performance.getSystemCpuLoad();
+        sample[PROCESS_CPU_LOAD] = performance.getProcessCpuLoad();
+
+        List<PerformanceAggregate> aggregates = Collections.emptyList();
+        for (Window window : windows) {
+            if (window.add(performance.getTime(), sample)) {
+                if (aggregates.isEmpty()) {
+                    aggregates = new ArrayList<>(windows.length);
+                }
+                aggregates.add(window.complete());
+            }
+        }
+        return aggregates;
+    }
+
+    public void reset() {
+        for (Window window : windows) {
+            window.count = 0;
+        }
+    }
+
+    private static class Window {
+
+        private final int resolution;
+        private final int size;
+
+        private final double[][] values;
+        private final double[] min = new double[METRICS];
+        private final double[] max = new double[METRICS];
+        private final double[] sum = new double[METRICS];
+        private final double[] sorted;
+
+        private int count;
+        private long startTime;
+        private long endTime;
+
+        Window(int resolution, int size) {
+            this.resolution = resolution;
+            this.size = size;
+            this.values = new double[METRICS][size];
+            this.sorted = new double[size];
+        }
+
+        boolean add(long time, double[] sample) {
+            if (count == 0) {
+                startTime = time;
+                Arrays.fill(min, Double.POSITIVE_INFINITY);
+                Arrays.fill(max, Double.NEGATIVE_INFINITY);
+                Arrays.fill(sum, 0);
+            }
+            endTime = time;
+
+            for (int metric = 0; metric < METRICS; metric++) {
+                double value = sample[metric];
+                values[metric][count] = value;
+                min[metric] = Math.min(min[metric], value);
+                max[metric] = Math.max(max[metric], value);
+                sum[metric] += value;
+            }
+            return ++count == size;
+        }
+
+        PerformanceAggregate complete() {
+            PerformanceAggregate aggregate = new PerformanceAggregate();
+            aggregate.setResolution(resolution);
+            aggregate.setStartTime(startTime);
+            aggregate.setEndTime(endTime);
+            aggregate.setSamples(count);
+
+            aggregate.setCommittedVirtualMemorySize(statistics(COMMITTED_VIRTUAL_MEMORY_SIZE));
+            aggregate.setTotalSwapSpaceSize(statistics(TOTAL_SWAP_SPACE_SIZE));
+            aggregate.setFreeSwapSpaceSize(statistics(FREE_SWAP_SPACE_SIZE));
+            aggregate.setTotalPhysicalMemorySize(statistics(TOTAL_PHYSICAL_MEMORY_SIZE));
+            aggregate.setFreePhysicalMemorySize(statistics(FREE_PHYSICAL_MEMORY_SIZE));
+            aggregate.setSystemCpuLoad(statistics(SYSTEM_CPU_LOAD));
+            aggregate.setProcessCpuLoad(statistics(PROCESS_CPU_LOAD));
+
+            count = 0;
+            return aggregate;
+        }
+
+        private PerformanceAggregate.Statistics statistics(int metric) {
+            System.arraycopy(values[metric], 0, sorted, 0, count);
+            Arrays.sort(sorted, 0, count);
+
+            PerformanceAggregate.Statistics statistics = new PerformanceAggregate.Statistics();
+            statistics.setMin(min[metric]);
+            statistics.setMax(max[metric]);
+            statistics.setAverage(sum[metric] / count);
+            statistics.setP50(percentile(0.50));
+            statistics.setP90(percentile(0.90));
+            statistics.setP99(percentile(0.99));
+            return statistics;
+        }
+
+        private double percentile(double percentile) {
+            int index = (int) Math.ceil(percentile * count) - 1;
+            return sorted[Math.max(0, Math.min(index, count - 1))];
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package demo.sse.server.common.management;
+
+import demo.sse.domain.common.SseMetrics;
+import demo.sse.server.common.sse.SseStatistics;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Component
+class SseMetricSource implements MetricSource {
+
+    private static final long MIN_PERIOD_NANOS = TimeUnit.MILLISECONDS.toNanos(900);
+
+    private final SseStatistics statistics;
+
+    private long lastNanos = System.nanoTime();
+    private long lastEvents;
+    private long lastBytes;
+    private long lastLatencyNanos;
+    private long lastLatencyCount;
+    private SseMetrics lastMetrics;
+
+    SseMetricSource(SseStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public String getName() {
+        return "sse";
+    }
+
+    @Override
+    public synchronized SseMetrics collect() {
+        long nanos = System.nanoTime();
+        if (lastMetrics != null && nanos - lastNanos < MIN_PERIOD_NANOS) {
+            return lastMetrics;
+        }
+
+        long connections = 0;
+        long events = 0;
+        long bytes = 0;
+        long latencyNanos = 0;
+        long latencyCount = 0;
+        long maxLatencyNanos = 0;
+        long compressedInputBytes = 0;
+        long compressedOutputBytes = 0;
+        long compressionCpuNanos = 0;
+        Map<String, Long> endpointConnections = new LinkedHashMap<>();
+        Map<String, Double> endpointCompressionRatios = new LinkedHashMap<>();
+        Map<String, Long> endpointCompressionCpuTimes = new LinkedHashMap<>();
+        for (SseStatistics.Endpoint endpoint : statistics.getEndpoints()) {
+            long endpointConnectionCount = endpoint.getConnections();
+            if (endpointConnectionCount > 0) {
+                endpointConnections.put(endpoint.getName(), endpointConnectionCount);
+            }
+            connections += endpointConnectionCount;
+            events += endpoint.getEvents();
+            bytes += endpoint.getBytes();
+            latencyNanos += endpoint.getLatencyNanos();
+            latencyCount += endpoint.getLatencyCount();
+            maxLatencyNanos = Math.max(maxLatencyNanos, endpoint.resetMaxLatencyNanos());
+
+            long endpointCompressedInputBytes = endpoint.getCompressedInputBytes();
+            if (endpointCompressedInputBytes > 0) {
+                endpointCompressionRatios.put(endpoint.getName(), endpoint.getCompressedOutputBytes() / (double) endpointCompressedInputBytes);
+                endpointCompressionCpuTimes.put(endpoint.getName(), TimeUnit.NANOSECONDS.toMicros(endpoint.getCompressionCpuNanos()));
+            }
+            compressedInputBytes += endpointCompressedInputBytes;
+            compressedOutputBytes += endpoint.getCompressedOutputBytes();
+            compressionCpuNanos += endpoint.getCompressionCpuNanos();
+        }
+
+        double seconds = (nanos - lastNanos) / 1e9;
+        long periodLatencyCount = latencyCount - lastLatencyCount;
+
+        SseMetrics metrics = new SseMetrics();
+        metrics.setConnections(connections);
+        metrics.setEndpointConnections(endpointConnections);
+        metrics.setEvents(events);
+        metrics.setBytes(bytes);
+        metrics.setEventsPerSecond((events - lastEvents) / seconds);
+        metrics.setBytesPerSecond((bytes - lastBytes) / seconds);
+        metrics.setAverageBroadcastLatency((periodLatencyCount > 0)
+                ? TimeUnit.NANOSECONDS.toMicros(latencyNanos - lastLatencyNanos) / (double) periodLatencyCount
+                : 0);
+        metrics.setMaxBroadcastLatency(TimeUnit.NANOSECONDS.toMicros(maxLatencyNanos));
+        metrics.setCompressedBytes(compressedOutputBytes);
+        metrics.setCompressionRatio((compressedInputBytes > 0) ? compressedOutputBytes / (double) compressedInputBytes : 0);
+        metrics.setCompressionCpuTime(TimeUnit.NANOSECONDS.toMicros(compressionCpuNanos));
+        metrics.setEndpointCompressionRatios(endpointCompressionRatios);
+        metrics.setEndpointCompressionCpuTimes(endpointCompressionCpuTimes);
+
+        lastNanos = nanos;
+        lastEvents = events;
+        lastBytes = bytes;
+        lastLatencyNanos = latencyNanos;
+        lastLatencyCount = latencyCount;
+        lastMetrics = metrics;
+        return metrics;
+    }
+}
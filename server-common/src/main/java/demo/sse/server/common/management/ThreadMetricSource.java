@@ -0,0 +1,32 @@
+package demo.sse.server.common.management;
+
+import demo.sse.domain.common.ThreadMetrics;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+@Component
+class ThreadMetricSource implements MetricSource {
+
+    private final ThreadMXBean threadMXBean;
+
+    ThreadMetricSource() {
+        this.threadMXBean = ManagementFactory.getThreadMXBean();
+    }
+
+    @Override
+    public String getName() {
+        return "threads";
+    }
+
+    @Override
+    public ThreadMetrics collect() {
+        ThreadMetrics metrics = new ThreadMetrics();
+        metrics.setThreadCount(threadMXBean.getThreadCount());
+        metrics.setDaemonThreadCount(threadMXBean.getDaemonThreadCount());
+        metrics.setPeakThreadCount(threadMXBean.getPeakThreadCount());
+        metrics.setTotalStartedThreadCount(threadMXBean.getTotalStartedThreadCount());
+        return metrics;
+    }
+}
@@ -0,0 +1,52 @@
+package demo.sse.server.common.sse;
+
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.LongAdder;
+
+public class BroadcastReport {
+
+    private final int subscribers;
+    private final int disconnected;
+    private final long encodedBytes;
+    private final long queuedBytes;
+    private final LongAdder writtenBytes;
+
+    public BroadcastReport(int subscribers, int disconnected, long encodedBytes, long queuedBytes, LongAdder writtenBytes) {
+        this.subscribers = subscribers;
+        this.disconnected = disconnected;
+        this.encodedBytes = encodedBytes;
+        this.queuedBytes = queuedBytes;
+        this.writtenBytes = writtenBytes;
+    }
+
+    public int getSubscribers() {
+        return subscribers;
+    }
+
+    public int getDisconnected() {
+        return disconnected;
+    }
+
+    public long getEncodedBytes() {
+        return encodedBytes;
+    }
+
+    public long getQueuedBytes() {
+        return queuedBytes;
+    }
+
+    public long getWrittenBytes() {
+        return writtenBytes.sum();
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", BroadcastReport.class.getSimpleName() + "[", "]")
+                .add("subscribers=" + subscribers)
+                .add("disconnected=" + disconnected)
+                .add("encodedBytes=" + encodedBytes)
+                .add("queuedBytes=" + queuedBytes)
+                .add("writtenBytes=" + writtenBytes.sum())
+                .toString();
+    }
+}
@@ -0,0 +1,104 @@
+package demo.sse.server.common.sse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+public class EventJournal {
+
+    private final String name;
+    private final SseFrameEncoder encoder;
+
+    private final int mask;
+    private final SseFrame[] frames;
+
+    private long lastId;
+    private SseFrame snapshot;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    EventJournal(String name, int capacity, SseFrameEncoder encoder) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+
+        this.name = name;
+        this.encoder = encoder;
+        this.mask = size - 1;
+        this.frames = new SseFrame[size];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCapacity() {
+        return frames.length;
+    }
+
+    public synchronized long getLastId() {
+        return lastId;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public synchronized SseFrame append(Object payload) {
+        long id = ++lastId;
+        SseFrame frame = encoder.encode(String.valueOf(id), payload);
+
+        frames[(int) (id & mask)] = frame;
+
+        return frame;
+    }
+
+    public synchronized SseFrame append(Object payload, Object snapshot) {
+        SseFrame frame = append(payload);
+        this.snapshot = encoder.encode(frame.getId(), snapshot);
+        return frame;
+    }
+
+    public synchronized List<SseFrame> replay(String lastEventId) {
+        if (lastEventId == null) {
+            return snapshot();
+        }
+
+        long fromId;
+        try {
+            fromId = Long.parseLong(lastEventId.trim()) + 1;
+        } catch (NumberFormatException e) {
+            misses.increment();
+            return snapshot();
+        }
+
+        long oldestId = Math.max(1, lastId - frames.length + 1);
+        if (fromId > lastId + 1) {
+            misses.increment();
+            return snapshot();
+        }
+        if (fromId < oldestId) {
+            misses.increment();
+            if (snapshot != null) {
+                return snapshot();
+            }
+            fromId = oldestId;
+        } else {
+            hits.increment();
+        }
+
+        List<SseFrame> missed = new ArrayList<>((int) (lastId - fromId + 1));
+        for (long id = fromId; id <= lastId; id++) {
+            missed.add(frames[(int) (id & mask)]);
+        }
+        return missed;
+    }
+
+    private List<SseFrame> snapshot() {
+        return (snapshot != null) ? Collections.singletonList(snapshot) : Collections.emptyList();
+    }
+}
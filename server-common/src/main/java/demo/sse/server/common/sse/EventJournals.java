@@ -0,0 +1,35 @@
+package demo.sse.server.common.sse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+@Component
+public class EventJournals {
+
+    private final Map<String, EventJournal> journals = new ConcurrentSkipListMap<>();
+
+    private final SseFrameEncoder encoder;
+    private final int capacity;
+
+    EventJournals(SseFrameEncoder encoder, @Value("${sse.journal.capacity:256}") int capacity) {
+        this.encoder = encoder;
+        this.capacity = capacity;
+    }
+
+    public EventJournal get(String name) {
+        return journals.computeIfAbsent(name, key -> new EventJournal(key, capacity, encoder));
+    }
+
+    public void remove(String name) {
+        journals.remove(name);
+    }
+
+    public Collection<EventJournal> getAll() {
+        return Collections.unmodifiableCollection(journals.values());
+    }
+}
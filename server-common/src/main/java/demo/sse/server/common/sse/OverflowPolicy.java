@@ -0,0 +1,8 @@
+package demo.sse.server.common.sse;
+
+public enum OverflowPolicy {
+
+    DROP_OLDEST,
+    COALESCE_LATEST,
+    DISCONNECT
+}
@@ -0,0 +1,138 @@
+package demo.sse.server.common.sse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class SseAdmission {
+
+    private static final Logger logger = LoggerFactory.getLogger(SseAdmission.class);
+
+    private static final int SERVICE_UNAVAILABLE = 503;
+    private static final int OK = 200;
+
+    private final SseStatistics statistics;
+    private final long maxConnections;
+    private final long maxEndpointConnections;
+    private final double acceptRate;
+    private final double acceptBurst;
+    private final long retryMillis;
+    private final long retryJitterMillis;
+    private final int rejectionStatus;
+
+    private double tokens;
+    private long refillNanos = System.nanoTime();
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejectedByRate = new LongAdder();
+    private final LongAdder rejectedByConnections = new LongAdder();
+    private final LongAdder rejectedByEndpointConnections = new LongAdder();
+
+    SseAdmission(SseStatistics statistics,
+                 @Value("${sse.admission.max-connections:10000}") long maxConnections,
+                 @Value("${sse.admission.max-endpoint-connections:10000}") long maxEndpointConnections,
+                 @Value("${sse.admission.accept-rate:1000}") double acceptRate,
+                 @Value("${sse.admission.accept-burst:2000}") double acceptBurst,
+                 @Value("${sse.admission.retry-millis:3000}") long retryMillis,
+                 @Value("${sse.admission.retry-jitter-millis:5000}") long retryJitterMillis,
+                 @Value("${sse.admission.reject-with-status:true}") boolean rejectWithStatus) {
+        this.statistics = statistics;
+        this.maxConnections = maxConnections;
+        this.maxEndpointConnections = maxEndpointConnections;
+        this.acceptRate = acceptRate;
+        this.acceptBurst = acceptBurst;
+        this.retryMillis = retryMillis;
+        this.retryJitterMillis = retryJitterMillis;
+        this.rejectionStatus = rejectWithStatus ? SERVICE_UNAVAILABLE : OK;
+        this.tokens = acceptBurst;
+    }
+
+    public SseStatistics.Connection admit(String endpointName) {
+        if (!tryAcquire()) {
+            rejectedByRate.increment();
+            throw reject("Accept rate exceeded: " + acceptRate + "/s");
+        }
+
+        SseStatistics.Connection connection = statistics.endpoint(endpointName).open();
+        if (statistics.getConnections() > maxConnections) {
+            connection.close();
+            rejectedByConnections.increment();
+            throw reject("Connection limit exceeded: " + maxConnections);
+        }
+        if (connection.getEndpoint().getConnections() > maxEndpointConnections) {
+            connection.close();
+            rejectedByEndpointConnections.increment();
+            throw reject("Endpoint connection limit exceeded: " + maxEndpointConnections);
+        }
+
+        admitted.increment();
+        return connection;
+    }
+
+    public long getConnections() {
+        return statistics.getConnections();
+    }
+
+    public long getMaxConnections() {
+        return maxConnections;
+    }
+
+    public long getMaxEndpointConnections() {
+        return maxEndpointConnections;
+    }
+
+    public double getOccupancy() {
+        return (double) statistics.getConnections() / maxConnections;
+    }
+
+    public double getAcceptRate() {
+        return acceptRate;
+    }
+
+    public synchronized double getAvailableTokens() {
+        refill();
+        return tokens;
+    }
+
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    public long getRejectedByRate() {
+        return rejectedByRate.sum();
+    }
+
+    public long getRejectedByConnections() {
+        return rejectedByConnections.sum();
+    }
+
+    public long getRejectedByEndpointConnections() {
+        return rejectedByEndpointConnections.sum();
+    }
+
+    private synchronized boolean tryAcquire() {
+        refill();
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    private void refill() {
+        long nanos = System.nanoTime();
+        tokens = Math.min(acceptBurst, tokens + (nanos - refillNanos) * acceptRate / 1e9);
+        refillNanos = nanos;
+    }
+
+    public SseAdmissionException reject(String reason) {
+        long retry = retryMillis + ((retryJitterMillis > 0) ? ThreadLocalRandom.current().nextLong(retryJitterMillis) : 0);
+        logger.debug("Connection is rejected: {}, retry in {} ms", reason, retry);
+        return new SseAdmissionException(reason, rejectionStatus, retry);
+    }
+}
@@ -0,0 +1,27 @@
+package demo.sse.server.common.sse;
+
+public class SseAdmissionException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+    private final long retryMillis;
+
+    SseAdmissionException(String message, int status, long retryMillis) {
+        super(message);
+        this.status = status;
+        this.retryMillis = retryMillis;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getRetryMillis() {
+        return retryMillis;
+    }
+
+    public String toEventStream() {
+        return ": " + getMessage() + "\nretry:" + retryMillis + "\n\n";
+    }
+}
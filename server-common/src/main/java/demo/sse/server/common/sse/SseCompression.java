@@ -0,0 +1,219 @@
+package demo.sse.server.common.sse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+@Component
+public class SseCompression {
+
+    public static final String GZIP = "gzip";
+
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final byte[] FINAL_BLOCK = {0x03, 0x00};
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final boolean enabled;
+    private final int level;
+    private final BlockingQueue<Deflater> deflaters;
+
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder inputBytes = new LongAdder();
+    private final LongAdder outputBytes = new LongAdder();
+    private final LongAdder cpuNanos = new LongAdder();
+
+    SseCompression(@Value("${sse.compression.enabled:false}") boolean enabled,
+                   @Value("${sse.compression.level:6}") int level,
+                   @Value("${sse.compression.pool-size:4}") int poolSize) {
+        this.enabled = enabled;
+        this.level = level;
+        this.deflaters = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public long getFrames() {
+        return frames.sum();
+    }
+
+    public long getInputBytes() {
+        return inputBytes.sum();
+    }
+
+    public long getOutputBytes() {
+        return outputBytes.sum();
+    }
+
+    public double getRatio() {
+        long input = inputBytes.sum();
+        return (input > 0) ? (double) outputBytes.sum() / input : 0;
+    }
+
+    public long getCpuNanos() {
+        return cpuNanos.sum();
+    }
+
+    public boolean accepts(String acceptEncoding) {
+        if (!enabled || acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            if (parameters[0].trim().equalsIgnoreCase(GZIP)) {
+                for (int i = 1; i < parameters.length; i++) {
+                    String parameter = parameters[i].trim().toLowerCase(Locale.ROOT);
+                    if (parameter.startsWith("q=") && isZero(parameter.substring(2))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Stream open(SseStatistics.Connection connection) {
+        return new Stream(connection);
+    }
+
+    @PreDestroy
+    void destroy() {
+        for (Deflater deflater = deflaters.poll(); deflater != null; deflater = deflaters.poll()) {
+            deflater.end();
+        }
+    }
+
+    private byte[] compress(SseFrame frame) {
+        byte[] compressed = frame.getCompressed();
+        if (compressed != null) {
+            return compressed;
+        }
+
+        compressed = deflate(frame.getBytes());
+        frame.setCompressed(compressed);
+        frames.increment();
+        inputBytes.add(frame.size());
+        outputBytes.add(compressed.length);
+        return compressed;
+    }
+
+    private byte[] deflate(byte[] input) {
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) {
+            deflater = new Deflater(level, true);
+        }
+        try {
+            deflater.setInput(input);
+            byte[] buffer = new byte[input.length + (input.length >> 3) + 64];
+            int length = 0;
+            while (true) {
+                length += deflater.deflate(buffer, length, buffer.length - length, Deflater.SYNC_FLUSH);
+                if (length < buffer.length) {
+                    return Arrays.copyOf(buffer, length);
+                }
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+        } finally {
+            deflater.reset();
+            if (!deflaters.offer(deflater)) {
+                deflater.end();
+            }
+        }
+    }
+
+    private static long currentThreadCpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    private static boolean isZero(String quality) {
+        try {
+            return Double.parseDouble(quality.trim()) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    public class Stream {
+
+        private final SseStatistics.Connection connection;
+        private final CRC32 crc = new CRC32();
+
+        private long size;
+        private boolean started;
+        private boolean finished;
+
+        private Stream(SseStatistics.Connection connection) {
+            this.connection = connection;
+        }
+
+        public synchronized byte[] write(SseFrame frame) {
+            long cpuNanos = 0;
+            byte[] segment = frame.getCompressed();
+            if (segment == null) {
+                long start = currentThreadCpuTime();
+                segment = compress(frame);
+                cpuNanos = currentThreadCpuTime() - start;
+                SseCompression.this.cpuNanos.add(cpuNanos);
+            }
+
+            crc.update(frame.getBytes());
+            size += frame.size();
+
+            byte[] bytes = segment;
+            if (!started) {
+                started = true;
+                bytes = new byte[HEADER.length + segment.length];
+                System.arraycopy(HEADER, 0, bytes, 0, HEADER.length);
+                System.arraycopy(segment, 0, bytes, HEADER.length, segment.length);
+            }
+            connection.compressed(frame.size(), bytes.length, cpuNanos);
+            return bytes;
+        }
+
+        public synchronized boolean isFinished() {
+            return finished;
+        }
+
+        public synchronized byte[] finish() {
+            if (finished) {
+                return new byte[0];
+            }
+            finished = true;
+
+            byte[] bytes = new byte[(started ? 0 : HEADER.length) + FINAL_BLOCK.length + 8];
+            int offset = 0;
+            if (!started) {
+                System.arraycopy(HEADER, 0, bytes, 0, HEADER.length);
+                offset = HEADER.length;
+            }
+            System.arraycopy(FINAL_BLOCK, 0, bytes, offset, FINAL_BLOCK.length);
+            offset += FINAL_BLOCK.length;
+            writeInt(bytes, offset, crc.getValue());
+            writeInt(bytes, offset + 4, size);
+            return bytes;
+        }
+
+        private void writeInt(byte[] bytes, int offset, long value) {
+            for (int i = 0; i < 4; i++) {
+                bytes[offset + i] = (byte) (value >>> (8 * i));
+            }
+        }
+    }
+}
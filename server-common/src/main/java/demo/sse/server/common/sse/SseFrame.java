@@ -0,0 +1,55 @@
+package demo.sse.server.common.sse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.StringJoiner;
+
+public class SseFrame {
+
+    private final String id;
+    private final byte[] bytes;
+    private final long nanoTime;
+
+    private volatile byte[] compressed;
+
+    SseFrame(String id, byte[] bytes) {
+        this(id, bytes, System.nanoTime());
+    }
+
+    SseFrame(String id, byte[] bytes, long nanoTime) {
+        this.id = id;
+        this.bytes = bytes;
+        this.nanoTime = nanoTime;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    public long getNanoTime() {
+        return nanoTime;
+    }
+
+    byte[] getCompressed() {
+        return compressed;
+    }
+
+    void setCompressed(byte[] compressed) {
+        this.compressed = compressed;
+    }
+
+    public int size() {
+        return bytes.length;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", SseFrame.class.getSimpleName() + "[", "]")
+                .add("id='" + id + "'")
+                .add("bytes='" + new String(bytes, StandardCharsets.UTF_8) + "'")
+                .toString();
+    }
+}
@@ -0,0 +1,80 @@
+package demo.sse.server.common.sse;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+@Component
+public class SseFrameEncoder {
+
+    private static final byte[] ID = "id:".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] EVENT = "event:".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DATA = "data:".getBytes(StandardCharsets.UTF_8);
+    private static final byte NEW_LINE = '\n';
+
+    private final ObjectMapper objectMapper;
+
+    SseFrameEncoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public SseFrame encode(Object data) {
+        return encode(null, null, data);
+    }
+
+    public SseFrame encode(String id, Object data) {
+        return encode(id, null, data);
+    }
+
+    public SseFrame encode(String id, String event, Object data) {
+        byte[] payload = toBytes(data);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length + 64);
+        if (id != null) {
+            writeField(out, ID, id.getBytes(StandardCharsets.UTF_8));
+        }
+        if (event != null) {
+            writeField(out, EVENT, event.getBytes(StandardCharsets.UTF_8));
+        }
+        writeData(out, payload);
+        out.write(NEW_LINE);
+
+        return new SseFrame(id, out.toByteArray());
+    }
+
+    private byte[] toBytes(Object data) {
+        if (data instanceof CharSequence) {
+            return data.toString().getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            return objectMapper.writeValueAsBytes(data);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeData(ByteArrayOutputStream out, byte[] payload) {
+        int start = 0;
+        for (int i = 0; i < payload.length; i++) {
+            if (payload[i] == NEW_LINE) {
+                writeLine(out, DATA, payload, start, i - start);
+                start = i + 1;
+            }
+        }
+        writeLine(out, DATA, payload, start, payload.length - start);
+    }
+
+    private static void writeField(ByteArrayOutputStream out, byte[] name, byte[] value) {
+        writeLine(out, name, value, 0, value.length);
+    }
+
+    private static void writeLine(ByteArrayOutputStream out, byte[] name, byte[] value, int offset, int length) {
+        out.write(name, 0, name.length);
+        out.write(value, offset, length);
+        out.write(NEW_LINE);
+    }
+}
@@ -0,0 +1,122 @@
+package demo.sse.server.common.sse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class SseHeartbeat {
+
+    private static final Logger logger = LoggerFactory.getLogger(SseHeartbeat.class);
+
+    public static final SseFrame PING = new SseFrame(null, ":\n\n".getBytes(StandardCharsets.UTF_8));
+
+    public interface Target {
+
+        long getLastWriteNanos();
+
+        boolean ping();
+    }
+
+    private final long intervalNanos;
+    private final long tickNanos;
+    private final long startNanos = System.nanoTime();
+    private final Queue<Target>[] wheel;
+
+    private volatile long currentTick;
+
+    private final LongAdder targets = new LongAdder();
+    private final LongAdder pings = new LongAdder();
+    private final LongAdder visits = new LongAdder();
+
+    private final ScheduledExecutorService scheduledExecutor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("sse-heartbeat-"));
+
+    @SuppressWarnings("unchecked")
+    SseHeartbeat(@Value("${sse.heartbeat.interval-millis:15000}") long intervalMillis,
+                 @Value("${sse.heartbeat.tick-millis:500}") long tickMillis) {
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.wheel = new Queue[(int) (intervalMillis / tickMillis) + 2];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        long tickMillis = TimeUnit.NANOSECONDS.toMillis(tickNanos);
+        scheduledExecutor.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        logger.info("SSE heartbeat is started: interval {} ms, tick {} ms, wheel size {}",
+                TimeUnit.NANOSECONDS.toMillis(intervalNanos), tickMillis, wheel.length);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduledExecutor.shutdownNow();
+    }
+
+    public void register(Target target) {
+        targets.increment();
+        schedule(target, System.nanoTime() + intervalNanos);
+    }
+
+    public long getTargets() {
+        return targets.sum();
+    }
+
+    public long getPings() {
+        return pings.sum();
+    }
+
+    public long getVisits() {
+        return visits.sum();
+    }
+
+    private void schedule(Target target, long deadlineNanos) {
+        long tick = currentTick;
+        long deadlineTick = (deadlineNanos - startNanos + tickNanos - 1) / tickNanos;
+        deadlineTick = Math.max(tick + 1, Math.min(deadlineTick, tick + wheel.length - 1));
+        wheel[(int) (deadlineTick % wheel.length)].add(target);
+    }
+
+    private void tick() {
+        long tick = ++currentTick;
+        Queue<Target> bucket = wheel[(int) (tick % wheel.length)];
+        long now = System.nanoTime();
+
+        for (int size = bucket.size(); size > 0; size--) {
+            Target target = bucket.poll();
+            if (target == null) {
+                break;
+            }
+            visits.increment();
+
+            try {
+                long lastWriteNanos = target.getLastWriteNanos();
+                if (now - lastWriteNanos < intervalNanos) {
+                    schedule(target, lastWriteNanos + intervalNanos);
+                } else if (target.ping()) {
+                    pings.increment();
+                    schedule(target, now + intervalNanos);
+                } else {
+                    targets.decrement();
+                }
+            } catch (Exception e) {
+                targets.decrement();
+                logger.warn("SSE heartbeat target failed: {}", target, e);
+            }
+        }
+    }
+}
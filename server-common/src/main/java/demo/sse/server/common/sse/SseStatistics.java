@@ -0,0 +1,157 @@
+package demo.sse.server.common.sse;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class SseStatistics {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+    private final AtomicLong connections = new AtomicLong();
+
+    public Endpoint endpoint(String name) {
+        return endpoints.computeIfAbsent(name, key -> new Endpoint(key, connections));
+    }
+
+    public void remove(String name) {
+        endpoints.computeIfPresent(name, (key, endpoint) -> (endpoint.getConnections() > 0) ? endpoint : null);
+    }
+
+    public long getConnections() {
+        return connections.get();
+    }
+
+    public long getConnections(String name) {
+        Endpoint endpoint = endpoints.get(name);
+        return (endpoint != null) ? endpoint.getConnections() : 0;
+    }
+
+    public Collection<Endpoint> getEndpoints() {
+        return Collections.unmodifiableCollection(endpoints.values());
+    }
+
+    public static class Endpoint {
+
+        private final String name;
+        private final AtomicLong totalConnections;
+
+        private final AtomicLong connections = new AtomicLong();
+        private final LongAdder events = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder latencyNanos = new LongAdder();
+        private final LongAdder latencyCount = new LongAdder();
+        private final AtomicLong maxLatencyNanos = new AtomicLong();
+        private final LongAdder compressedInputBytes = new LongAdder();
+        private final LongAdder compressedOutputBytes = new LongAdder();
+        private final LongAdder compressionCpuNanos = new LongAdder();
+
+        Endpoint(String name, AtomicLong totalConnections) {
+            this.name = name;
+            this.totalConnections = totalConnections;
+        }
+
+        public Connection open() {
+            connections.incrementAndGet();
+            totalConnections.incrementAndGet();
+            return new Connection(this);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getConnections() {
+            return connections.get();
+        }
+
+        public long getEvents() {
+            return events.sum();
+        }
+
+        public long getBytes() {
+            return bytes.sum();
+        }
+
+        public long getLatencyNanos() {
+            return latencyNanos.sum();
+        }
+
+        public long getLatencyCount() {
+            return latencyCount.sum();
+        }
+
+        public long resetMaxLatencyNanos() {
+            return maxLatencyNanos.getAndSet(0);
+        }
+
+        public long getCompressedInputBytes() {
+            return compressedInputBytes.sum();
+        }
+
+        public long getCompressedOutputBytes() {
+            return compressedOutputBytes.sum();
+        }
+
+        public long getCompressionCpuNanos() {
+            return compressionCpuNanos.sum();
+        }
+
+        @Override
+        public String toString() {
+            return new StringJoiner(", ", Endpoint.class.getSimpleName() + "[", "]")
+                    .add("name='" + name + "'")
+                    .add("connections=" + connections)
+                    .add("events=" + events)
+                    .add("bytes=" + bytes)
+                    .toString();
+        }
+    }
+
+    public static class Connection {
+
+        private final Endpoint endpoint;
+        private final long openedNanos = System.nanoTime();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Connection(Endpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public Endpoint getEndpoint() {
+            return endpoint;
+        }
+
+        public void sent(SseFrame frame) {
+            endpoint.events.increment();
+            endpoint.bytes.add(frame.size());
+
+            if (frame.getNanoTime() >= openedNanos) {
+                long latency = System.nanoTime() - frame.getNanoTime();
+                endpoint.latencyNanos.add(latency);
+                endpoint.latencyCount.increment();
+                endpoint.maxLatencyNanos.accumulateAndGet(latency, Math::max);
+            }
+        }
+
+        public void compressed(int inputBytes, int outputBytes, long cpuNanos) {
+            endpoint.compressedInputBytes.add(inputBytes);
+            endpoint.compressedOutputBytes.add(outputBytes);
+            endpoint.compressionCpuNanos.add(cpuNanos);
+        }
+
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                endpoint.connections.decrementAndGet();
+                endpoint.totalConnections.decrementAndGet();
+            }
+        }
+    }
+}
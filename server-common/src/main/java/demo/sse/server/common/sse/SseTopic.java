@@ -0,0 +1,62 @@
+package demo.sse.server.common.sse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+public enum SseTopic {
+
+    PERFORMANCE("performance"),
+    FOLDER_WATCH("folder-watch"),
+    WORDS("words");
+
+    private final String name;
+    private final byte[] prefix;
+
+    SseTopic(String name) {
+        this.name = name;
+        this.prefix = ("event:" + name + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public SseFrame tag(SseFrame frame) {
+        byte[] bytes = frame.getBytes();
+        byte[] tagged = new byte[prefix.length + bytes.length];
+        System.arraycopy(prefix, 0, tagged, 0, prefix.length);
+        System.arraycopy(bytes, 0, tagged, prefix.length, bytes.length);
+        return new SseFrame(frame.getId(), tagged, frame.getNanoTime());
+    }
+
+    public static SseTopic of(String name) {
+        for (SseTopic topic : values()) {
+            if (topic.name.equals(name)) {
+                return topic;
+            }
+        }
+        throw new IllegalArgumentException("Unknown topic: " + name + ", available: " + getNames(EnumSet.allOf(SseTopic.class)));
+    }
+
+    public static Set<SseTopic> parse(String topics) {
+        Set<SseTopic> parsed = EnumSet.noneOf(SseTopic.class);
+        if (topics != null && !topics.trim().isEmpty()) {
+            for (String topic : topics.split(",")) {
+                parsed.add(of(topic.trim()));
+            }
+        }
+        return parsed;
+    }
+
+    public static List<String> getNames(Collection<SseTopic> topics) {
+        List<String> names = new ArrayList<>(topics.size());
+        for (SseTopic topic : topics) {
+            names.add(topic.name);
+        }
+        return names;
+    }
+}
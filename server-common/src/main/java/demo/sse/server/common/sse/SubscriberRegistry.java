@@ -0,0 +1,146 @@
+package demo.sse.server.common.sse;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SubscriberRegistry<T> implements Iterable<T> {
+
+    private static final int INITIAL_SHARD_CAPACITY = 16;
+    private static final Object[] EMPTY = new Object[0];
+
+    public interface Registration {
+
+        void remove();
+    }
+
+    private final Shard<T>[] shards;
+    private final int mask;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public SubscriberRegistry() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    @SuppressWarnings("unchecked")
+    public SubscriberRegistry(int concurrency) {
+        int size = Integer.highestOneBit(Math.max(1, concurrency - 1) << 1);
+        this.shards = new Shard[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            shards[i] = new Shard<>();
+        }
+    }
+
+    public Registration add(T subscriber) {
+        return shards[next.getAndIncrement() & mask].add(subscriber);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Shard<T> shard : shards) {
+            size += shard.size;
+        }
+        return size;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new RegistryIterator();
+    }
+
+    private static class Shard<T> {
+
+        private volatile Object[] slots = new Object[INITIAL_SHARD_CAPACITY];
+        private volatile int limit;
+        private volatile int size;
+
+        private int[] free = new int[INITIAL_SHARD_CAPACITY];
+        private int freeCount;
+
+        synchronized Registration add(T subscriber) {
+            Object[] slots = this.slots;
+            int limit = this.limit;
+            int index;
+            if (freeCount > 0) {
+                index = free[--freeCount];
+            } else {
+                if (limit == slots.length) {
+                    slots = Arrays.copyOf(slots, slots.length * 2);
+                    this.slots = slots;
+                }
+                index = limit++;
+            }
+            slots[index] = subscriber;
+            size++;
+            this.limit = limit;
+            return () -> remove(index, subscriber);
+        }
+
+        private synchronized void remove(int index, T subscriber) {
+            Object[] slots = this.slots;
+            if (slots[index] != subscriber) {
+                return;
+            }
+            slots[index] = null;
+            size--;
+
+            int limit = this.limit;
+            if (size == 0) {
+                limit = 0;
+                freeCount = 0;
+            } else if (index == limit - 1) {
+                limit--;
+            } else {
+                if (freeCount == free.length) {
+                    free = Arrays.copyOf(free, free.length * 2);
+                }
+                free[freeCount++] = index;
+            }
+            this.limit = limit;
+        }
+    }
+
+    private class RegistryIterator implements Iterator<T> {
+
+        private int shard;
+        private Object[] slots = EMPTY;
+        private int limit;
+        private int index;
+        private Object next;
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                while (index < limit) {
+                    Object slot = slots[index++];
+                    if (slot != null) {
+                        next = slot;
+                        return true;
+                    }
+                }
+                if (shard == shards.length) {
+                    return false;
+                }
+                Shard<T> current = shards[shard++];
+                limit = current.limit;
+                slots = current.slots;
+                limit = Math.min(limit, slots.length);
+                index = 0;
+            }
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object result = next;
+            next = null;
+            return (T) result;
+        }
+    }
+}
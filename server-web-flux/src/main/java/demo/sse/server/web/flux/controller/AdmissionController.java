@@ -0,0 +1,22 @@
+package demo.sse.server.web.flux.controller;
+
+import demo.sse.server.common.sse.SseAdmission;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/sse/flux")
+public class AdmissionController {
+
+    private final SseAdmission admission;
+
+    AdmissionController(SseAdmission admission) {
+        this.admission = admission;
+    }
+
+    @GetMapping(path = "/admission")
+    SseAdmission getAdmission() {
+        return admission;
+    }
+}
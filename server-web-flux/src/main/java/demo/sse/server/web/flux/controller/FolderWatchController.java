@@ -1,49 +1,164 @@
 package demo.sse.server.web.flux.controller;
 
+import demo.sse.server.common.bus.EventBus;
 import demo.sse.server.common.file.FolderChangeEvent;
+import demo.sse.server.common.file.FolderChangeFilter;
 import demo.sse.server.common.file.FolderWatchService;
-import org.springframework.context.ApplicationListener;
+import demo.sse.server.common.file.FolderWatchVariants;
+import demo.sse.server.common.file.PathPrefixIndex;
+import demo.sse.server.common.sse.EventJournals;
+import demo.sse.server.common.sse.OverflowPolicy;
+import demo.sse.server.common.sse.SseAdmission;
+import demo.sse.server.common.sse.SseStatistics;
+import demo.sse.server.common.sse.SseTopic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.integration.dsl.MessageChannels;
-import org.springframework.messaging.MessageHandler;
-import org.springframework.messaging.SubscribableChannel;
-import org.springframework.messaging.support.GenericMessage;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicReference;
 
 @RestController
 @RequestMapping("/sse/flux")
-public class FolderWatchController implements ApplicationListener<FolderChangeEvent> {
+public class FolderWatchController {
+
+    private static final Logger logger = LoggerFactory.getLogger(FolderWatchController.class);
 
     private final FolderWatchService folderWatchService;
+    private final EventBus<FolderChangeEvent> eventBus;
+    private final EventJournals journals;
+    private final SseAdmission admission;
+    private final SseResponses responses;
+    private final SseTopics topics;
+    private final int bufferSize;
+    private final OverflowPolicy overflowPolicy;
+    private final SseStatistics statistics;
+    private final FolderWatchVariants<FolderWatchStream> variants;
+    private final long evictionMillis;
+
+    private volatile FolderWatchStream topicStream;
+    private Disposable eviction;
 
-    FolderWatchController(FolderWatchService folderWatchService) {
+    FolderWatchController(FolderWatchService folderWatchService,
+                          EventBus<FolderChangeEvent> eventBus,
+                          EventJournals journals,
+                          SseAdmission admission,
+                          SseResponses responses,
+                          SseTopics topics,
+                          @Value("${sse.flux.folder-watch.buffer-size:256}") int bufferSize,
+                          @Value("${sse.flux.folder-watch.overflow-policy:DROP_OLDEST}") OverflowPolicy overflowPolicy,
+                          SseStatistics statistics,
+                          @Value("${sse.flux.folder-watch.max-variants:64}") int maxVariants,
+                          @Value("${sse.flux.folder-watch.eviction-millis:60000}") long evictionMillis) {
         this.folderWatchService = folderWatchService;
-    }
+        this.eventBus = eventBus;
+        this.journals = journals;
+        this.admission = admission;
+        this.responses = responses;
+        this.topics = topics;
+        this.bufferSize = bufferSize;
+        this.overflowPolicy = overflowPolicy;
+        this.statistics = statistics;
+        this.variants = new FolderWatchVariants<>(maxVariants, new FolderWatchVariants.Lifecycle<FolderWatchStream>() {
+            @Override
+            public FolderWatchStream create(Path prefix, FolderChangeFilter filter) {
+                return new FolderWatchStream(journals.get(getName(prefix, filter)), bufferSize, overflowPolicy);
+            }
 
-    private final SubscribableChannel subscribableChannel = MessageChannels.publishSubscribe().get();
+            @Override
+            public boolean isIdle(FolderWatchStream stream) {
+                return stream != topicStream && !stream.hasSubscribers() && statistics.getConnections(stream.getName()) == 0;
+            }
+
+            @Override
+            public void evict(FolderWatchStream stream) {
+                journals.remove(stream.getName());
+                statistics.remove(stream.getName());
+                logger.info("Folder watch variant evicted: {}", stream.getName());
+            }
+
+            @Override
+            public RuntimeException reject(String reason) {
+                return admission.reject(reason);
+            }
+        });
+        this.evictionMillis = evictionMillis;
+    }
 
     @PostConstruct
     void init() {
-        folderWatchService.start(System.getProperty("user.home"));
+        topicStream = variants.get(PathPrefixIndex.toPrefix(null), FolderChangeFilter.ALL);
+        topics.register(SseTopic.FOLDER_WATCH, topicStream.live());
+        eventBus.subscribe("flux", this::onFolderChange);
+        eviction = Flux.interval(Duration.ofMillis(evictionMillis))
+                .onBackpressureDrop()
+                .subscribe(tick -> variants.evictIdle());
+        folderWatchService.start();
+    }
+
+    @PreDestroy
+    void destroy() {
+        eviction.dispose();
     }
 
     @GetMapping(path = "/folder-watch", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    Flux<FolderChangeEvent.Event> getFolderWatch() {
-        return Flux.create(sink -> {
-            MessageHandler handler = message -> sink.next(FolderChangeEvent.class.cast(message.getPayload()).getEvent());
-            sink.onCancel(() -> subscribableChannel.unsubscribe(handler));
-            subscribableChannel.subscribe(handler);
-        }, FluxSink.OverflowStrategy.LATEST);
+    Mono<Void> getFolderWatch(@RequestParam(required = false) String path,
+                              @RequestParam(required = false) String glob,
+                              @RequestParam(required = false) String actions,
+                              @RequestHeader(name = "Last-Event-ID", required = false) String lastId,
+                              ServerWebExchange exchange) {
+        Path prefix = PathPrefixIndex.toPrefix(path);
+        FolderChangeFilter filter = parseFilter(glob, actions);
+        AtomicReference<SseStatistics.Connection> connection = new AtomicReference<>();
+        FolderWatchStream stream = variants.compute(prefix, filter, variant -> connection.set(admission.admit(variant.getName())));
+        return responses.write(exchange, connection.get(), stream.subscribe(lastId));
+    }
+
+    private void onFolderChange(FolderChangeEvent event) {
+        FolderChangeEvent.Batch batch = event.getBatch();
+        variants.route(batch.getEvents()).forEach((filterStreams, events) ->
+                filterStreams.forEach((filter, stream) -> {
+                    List<FolderChangeEvent.Event> filtered = filter.filter(events);
+                    if (!filtered.isEmpty()) {
+                        stream.publish(filtered.size() == batch.getEvents().size() ? batch : new FolderChangeEvent.Batch(filtered));
+                    }
+                })
+        );
+    }
+
+    private static String getName(Path prefix, FolderChangeFilter filter) {
+        StringJoiner query = new StringJoiner("&", "?", "").setEmptyValue("");
+        if (!prefix.toString().isEmpty()) {
+            query.add("path=" + prefix);
+        }
+        if (filter != FolderChangeFilter.ALL) {
+            query.add(filter.getQuery());
+        }
+        return "flux/folder-watch" + query;
     }
 
-    @Override
-    public void onApplicationEvent(FolderChangeEvent event) {
-        subscribableChannel.send(new GenericMessage<>(event));
+    private static FolderChangeFilter parseFilter(String glob, String actions) {
+        try {
+            return FolderChangeFilter.of(glob, actions);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 }
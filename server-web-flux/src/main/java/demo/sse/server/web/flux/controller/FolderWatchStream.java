@@ -0,0 +1,52 @@
+package demo.sse.server.web.flux.controller;
+
+import demo.sse.server.common.sse.EventJournal;
+import demo.sse.server.common.sse.OverflowPolicy;
+import demo.sse.server.common.sse.SseFrame;
+import reactor.core.publisher.DirectProcessor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+class FolderWatchStream {
+
+    private final EventJournal journal;
+    private final int bufferSize;
+    private final OverflowPolicy overflowPolicy;
+
+    private final DirectProcessor<SseFrame> processor = DirectProcessor.create();
+
+    FolderWatchStream(EventJournal journal, int bufferSize, OverflowPolicy overflowPolicy) {
+        this.journal = journal;
+        this.bufferSize = bufferSize;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    String getName() {
+        return journal.getName();
+    }
+
+    boolean hasSubscribers() {
+        return processor.hasDownstreams();
+    }
+
+    Flux<SseFrame> subscribe(String lastId) {
+        Flux<SseFrame> frames = Flux.create(sink -> {
+            synchronized (journal) {
+                journal.replay(lastId).forEach(sink::next);
+                sink.onDispose(processor.subscribe(sink::next, sink::error, sink::complete));
+            }
+        }, FluxSink.OverflowStrategy.IGNORE);
+
+        return SseResponses.buffer(frames, bufferSize, overflowPolicy);
+    }
+
+    Flux<SseFrame> live() {
+        return processor;
+    }
+
+    void publish(Object payload) {
+        synchronized (journal) {
+            processor.onNext(journal.append(payload));
+        }
+    }
+}
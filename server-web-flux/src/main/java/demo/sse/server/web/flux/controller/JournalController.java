@@ -0,0 +1,25 @@
+package demo.sse.server.web.flux.controller;
+
+import demo.sse.server.common.sse.EventJournal;
+import demo.sse.server.common.sse.EventJournals;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collection;
+
+@RestController
+@RequestMapping("/sse/flux")
+public class JournalController {
+
+    private final EventJournals journals;
+
+    JournalController(EventJournals journals) {
+        this.journals = journals;
+    }
+
+    @GetMapping(path = "/journals")
+    Collection<EventJournal> getJournals() {
+        return journals.getAll();
+    }
+}
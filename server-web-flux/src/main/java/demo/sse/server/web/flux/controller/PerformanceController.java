@@ -1,30 +1,292 @@
 package demo.sse.server.web.flux.controller;
 
 import demo.sse.domain.common.Performance;
+import demo.sse.domain.common.PerformanceAggregate;
+import demo.sse.server.common.history.HistoryCursor;
+import demo.sse.server.common.history.PerformanceHistory;
+import demo.sse.server.common.management.PerformanceDeltaEncoder;
+import demo.sse.server.common.management.MetricSources;
+import demo.sse.server.common.management.PerformanceEncoding;
+import demo.sse.server.common.management.PerformanceProjection;
+import demo.sse.server.common.management.PerformanceSampling;
 import demo.sse.server.common.management.PerformanceService;
+import demo.sse.server.common.management.PerformanceWindows;
+import demo.sse.server.common.sse.EventJournal;
+import demo.sse.server.common.sse.EventJournals;
+import demo.sse.server.common.sse.SseFrame;
+import demo.sse.server.common.sse.SseFrameEncoder;
+import demo.sse.server.common.sse.SseAdmission;
+import demo.sse.server.common.sse.SseTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.DirectProcessor;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @RestController
 @RequestMapping("/sse/flux")
 public class PerformanceController {
 
     private final PerformanceService performanceService;
+    private final MetricSources metricSources;
+    private final PerformanceHistory history;
+    private final EventJournals journals;
+    private final SseAdmission admission;
+    private final SseResponses responses;
+    private final PerformanceSampling sampling;
+    private final SseFrameEncoder frameEncoder;
+    private final int keyframeInterval;
 
-    PerformanceController(PerformanceService performanceService) {
+    PerformanceController(PerformanceService performanceService, MetricSources metricSources, PerformanceHistory history,
+                          EventJournals journals, SseAdmission admission, SseResponses responses, SseTopics topics,
+                          PerformanceSampling sampling, SseFrameEncoder frameEncoder,
+                          @Value("${sse.performance.keyframe-interval:60}") int keyframeInterval,
+                          @Value("${sse.performance.aggregation.resolutions:1,10,60,300}") int[] resolutions) {
         this.performanceService = performanceService;
+        this.metricSources = metricSources;
+        this.history = history;
+        this.journals = journals;
+        this.admission = admission;
+        this.responses = responses;
+        this.sampling = sampling;
+        this.frameEncoder = frameEncoder;
+        this.keyframeInterval = keyframeInterval;
+
+        Flux<PerformanceAggregate> aggregates = createAggregator(resolutions);
+        for (int resolution : resolutions) {
+            EventJournal journal = journals.get("flux/performance/aggregates?resolution=" + resolution);
+            this.aggregateSamplers.put(resolution, aggregates
+                    .filter(aggregate -> aggregate.getResolution() == resolution)
+                    .onBackpressureDrop()
+                    .map(journal::append)
+                    .replay(1)
+                    .refCount());
+        }
+
+        int tier = sampling.getTier(1);
+        String journalName = getJournalName(tier, PerformanceEncoding.JSON, PerformanceProjection.ALL);
+        topics.register(SseTopic.PERFORMANCE, Flux
+                .defer(() -> getLiveSampler(journalName, tier, PerformanceEncoding.JSON, PerformanceProjection.ALL))
+                .mergeWith(getSamplingNotices(tier)));
+
+        sampling.addListener(() -> {
+            synchronized (samplingChanges) {
+                samplingChanges.onNext(sampling.getBackoff());
+            }
+        });
     }
 
+    private final Flux<Sample> ticks = Flux
+            .interval(Duration.ofSeconds(1))
+            .onBackpressureDrop()
+            .map(sequence -> new Sample())
+            .publish()
+            .refCount();
+    private final Map<Integer, Flux<Performance>> tierSamplers = new ConcurrentHashMap<>();
+    private final Map<String, Flux<SseFrame>> samplers = new ConcurrentHashMap<>();
+    private final Map<Integer, Flux<SseFrame>> aggregateSamplers = new HashMap<>();
+    private final DirectProcessor<Integer> samplingChanges = DirectProcessor.create();
+
     @GetMapping(path = "/performance", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    Flux<Performance> getPerformance(@RequestParam int seconds) {
+    Mono<Void> getPerformance(@RequestParam int seconds,
+                              @RequestParam(defaultValue = "json") PerformanceEncoding encoding,
+                              @RequestParam(required = false) String fields,
+                              @RequestParam(required = false) String metrics,
+                              @RequestHeader(name = "Last-Event-ID", required = false) String lastId,
+                              ServerWebExchange exchange) {
+        PerformanceProjection projection = parseProjection(fields, metrics);
+        if (!projection.isAll() && encoding != PerformanceEncoding.JSON) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Fields and metrics are supported only by JSON encoding");
+        }
+
+        int tier = sampling.getTier(seconds);
+        String journalName = getJournalName(tier, encoding, projection);
+        return responses.write(exchange, admission.admit(journalName), getSampler(journalName, tier, encoding, projection, lastId));
+    }
+
+    @GetMapping(path = "/performance/metrics")
+    Set<String> getPerformanceMetrics() {
+        return metricSources.getNames();
+    }
+
+    @GetMapping(path = "/performance/history", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    Mono<Void> getPerformanceHistory(@RequestParam long from,
+                                     @RequestParam(required = false) Long to,
+                                     @RequestParam(defaultValue = "1") int seconds,
+                                     ServerWebExchange exchange) {
+        Flux<SseFrame> replay = Flux
+                .<SseFrame, HistoryCursor>generate(
+                        () -> history.query(from, (to != null) ? to : Long.MAX_VALUE),
+                        (cursor, sink) -> {
+                            SseFrame frame = cursor.next();
+                            if (frame != null) {
+                                sink.next(frame);
+                            } else {
+                                sink.complete();
+                            }
+                            return cursor;
+                        })
+                .subscribeOn(Schedulers.boundedElastic());
+
+        int tier = sampling.getTier(seconds);
+        String journalName = getJournalName(tier, PerformanceEncoding.JSON, PerformanceProjection.ALL);
+        return responses.write(exchange, admission.admit("flux/performance/history"), (to != null)
+                ? replay
+                : replay.concatWith(Flux.defer(() -> getSampler(journalName, tier, PerformanceEncoding.JSON, PerformanceProjection.ALL, null))));
+    }
+
+    @GetMapping(path = "/performance/aggregates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    Mono<Void> getPerformanceAggregates(@RequestParam int resolution,
+                                        @RequestParam(defaultValue = "0") int history,
+                                        @RequestHeader(name = "Last-Event-ID", required = false) String lastId,
+                                        ServerWebExchange exchange) {
+        Flux<SseFrame> live = aggregateSamplers.get(resolution);
+        if (live == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Resolution is not aggregated: " + resolution);
+        }
+
+        EventJournal journal = journals.get("flux/performance/aggregates?resolution=" + resolution);
+        String fromId = (lastId == null && history > 0)
+                ? String.valueOf(Math.max(0, journal.getLastId() - history))
+                : lastId;
+        return responses.write(exchange, admission.admit(journal.getName()), replayAndLive(journal, fromId, live));
+    }
+
+    private PerformanceProjection parseProjection(String fields, String metrics) {
+        try {
+            return PerformanceProjection.of(fields, metricSources.parse(metrics));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private static String getJournalName(int seconds, PerformanceEncoding encoding, PerformanceProjection projection) {
+        String journalName = "flux/performance/" + seconds;
+        if (encoding != PerformanceEncoding.JSON) {
+            journalName += "?encoding=" + encoding.name().toLowerCase(Locale.ROOT);
+        } else if (!projection.isAll()) {
+            journalName += "?" + projection.getQuery();
+        }
+        return journalName;
+    }
+
+    private Flux<SseFrame> getSampler(String journalName, int seconds, PerformanceEncoding encoding,
+                                      PerformanceProjection projection, String lastId) {
+        return replayAndLive(journals.get(journalName), lastId, getLiveSampler(journalName, seconds, encoding, projection))
+                .mergeWith(getSamplingNotices(seconds));
+    }
+
+    private Flux<SseFrame> getLiveSampler(String journalName, int seconds, PerformanceEncoding encoding,
+                                          PerformanceProjection projection) {
+        EventJournal journal = journals.get(journalName);
+        return samplers.computeIfAbsent(journalName, key -> createSampler(seconds, encoding, projection, journal));
+    }
+
+    private Flux<SseFrame> getSamplingNotices(int tier) {
+        return samplingChanges
+                .onBackpressureLatest()
+                .map(backoff -> frameEncoder.encode(null, "sampling", sampling.getState(tier)));
+    }
+
+    private static Flux<SseFrame> replayAndLive(EventJournal journal, String lastId, Flux<SseFrame> sampler) {
+        Flux<SseFrame> live = sampler.onBackpressureLatest();
+        return Flux.defer(() -> {
+            List<SseFrame> missed = journal.replay(lastId);
+            if (missed.isEmpty()) {
+                long lastEventId = parseId(lastId);
+                return (lastEventId >= 0 && lastEventId <= journal.getLastId())
+                        ? live.filter(frame -> Long.parseLong(frame.getId()) > lastEventId)
+                        : live;
+            }
+
+            long lastReplayedId = Long.parseLong(missed.get(missed.size() - 1).getId());
+            return Flux.fromIterable(missed)
+                    .concatWith(live.filter(frame -> Long.parseLong(frame.getId()) > lastReplayedId));
+        });
+    }
+
+    private static long parseId(String id) {
+        if (id == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(id.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private Flux<PerformanceAggregate> createAggregator(int[] resolutions) {
         return Flux
-                .interval(Duration.ofSeconds(seconds))
-                .map(sequence -> performanceService.getPerformance());
+                .defer(() -> {
+                    PerformanceWindows windows = new PerformanceWindows(1, resolutions);
+                    return ticks
+                            .map(Sample::get)
+                            .concatMapIterable(windows::add);
+                })
+                .publish()
+                .refCount();
+    }
+
+    private Flux<Performance> getTierSampler(int tier) {
+        return tierSamplers.computeIfAbsent(tier, key -> Flux
+                .defer(() -> {
+                    PerformanceSampling.Schedule schedule = sampling.schedule(key);
+                    return ticks.filter(sample -> schedule.due());
+                })
+                .map(Sample::get)
+                .publish()
+                .refCount());
+    }
+
+    private Flux<SseFrame> createSampler(int seconds, PerformanceEncoding encoding, PerformanceProjection projection, EventJournal journal) {
+        PerformanceDeltaEncoder encoder = (encoding != PerformanceEncoding.JSON)
+                ? new PerformanceDeltaEncoder(encoding, keyframeInterval)
+                : null;
+
+        return getTierSampler(seconds)
+                .map(performance -> append(journal, encoder, performance, projection))
+                .replay(1)
+                .refCount();
+    }
+
+    private SseFrame append(EventJournal journal, PerformanceDeltaEncoder encoder, Performance performance,
+                            PerformanceProjection projection) {
+        if (encoder == null) {
+            return journal.append(projection.isAll() ? performance : projection.apply(performance, metricSources));
+        }
+        synchronized (journal) {
+            return journal.append(encoder.encode(performance), encoder.keyframe());
+        }
+    }
+
+    private class Sample {
+
+        private Performance performance;
+
+        synchronized Performance get() {
+            if (performance == null) {
+                performance = performanceService.getPerformance();
+                sampling.sampled(performance);
+            }
+            return performance;
+        }
     }
 }
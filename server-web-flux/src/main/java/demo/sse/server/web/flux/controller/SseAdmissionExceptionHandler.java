@@ -0,0 +1,25 @@
+package demo.sse.server.web.flux.controller;
+
+import demo.sse.server.common.sse.SseAdmissionException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+@RestControllerAdvice
+class SseAdmissionExceptionHandler {
+
+    @ExceptionHandler(SseAdmissionException.class)
+    Mono<Void> handleAdmissionException(SseAdmissionException e, ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.valueOf(e.getStatus()));
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf((e.getRetryMillis() + 999) / 1000));
+        response.getHeaders().setContentType(MediaType.TEXT_EVENT_STREAM);
+        byte[] body = e.toEventStream().getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
@@ -0,0 +1,115 @@
+package demo.sse.server.web.flux.controller;
+
+import demo.sse.server.common.sse.OverflowPolicy;
+import demo.sse.server.common.sse.SseCompression;
+import demo.sse.server.common.sse.SseFrame;
+import demo.sse.server.common.sse.SseHeartbeat;
+import demo.sse.server.common.sse.SseStatistics;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+@Component
+class SseResponses {
+
+    private static final MediaType TEXT_EVENT_STREAM_UTF8 = new MediaType(MediaType.TEXT_EVENT_STREAM, StandardCharsets.UTF_8);
+
+    private final SseHeartbeat heartbeat;
+    private final SseCompression compression;
+
+    SseResponses(SseHeartbeat heartbeat, SseCompression compression) {
+        this.heartbeat = heartbeat;
+        this.compression = compression;
+    }
+
+    Mono<Void> write(ServerWebExchange exchange, SseStatistics.Connection connection, Flux<SseFrame> frames) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().setContentType(TEXT_EVENT_STREAM_UTF8);
+        SseCompression.Stream gzip = negotiateCompression(exchange, connection);
+
+        DataBufferFactory bufferFactory = response.bufferFactory();
+        Pings pings = new Pings();
+        Flux<Mono<DataBuffer>> buffers = frames
+                .doOnNext(connection::sent)
+                .publish(shared -> shared.mergeWith(Flux
+                        .<SseFrame>create(sink -> {
+                            pings.start(sink);
+                            heartbeat.register(pings);
+                        })
+                        .takeUntilOther(shared.ignoreElements())))
+                .doOnNext(frame -> pings.written())
+                .map(frame -> Mono.just(bufferFactory.wrap((gzip != null) ? gzip.write(frame) : frame.getBytes())));
+        if (gzip != null) {
+            buffers = buffers.concatWith(Mono.fromSupplier(() -> Mono.just(bufferFactory.wrap(gzip.finish()))));
+        }
+
+        return response
+                .writeAndFlushWith(buffers)
+                .doFinally(signal -> connection.close());
+    }
+
+    static Flux<SseFrame> buffer(Flux<SseFrame> frames, int bufferSize, OverflowPolicy overflowPolicy) {
+        switch (overflowPolicy) {
+            case COALESCE_LATEST:
+                return frames.onBackpressureLatest();
+            case DISCONNECT:
+                return frames.onBackpressureBuffer(bufferSize, BufferOverflowStrategy.ERROR);
+            default:
+                return frames.onBackpressureBuffer(bufferSize, BufferOverflowStrategy.DROP_OLDEST);
+        }
+    }
+
+    private SseCompression.Stream negotiateCompression(ServerWebExchange exchange, SseStatistics.Connection connection) {
+        if (!compression.isEnabled()) {
+            return null;
+        }
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!compression.accepts(exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING))) {
+            return null;
+        }
+        headers.set(HttpHeaders.CONTENT_ENCODING, SseCompression.GZIP);
+        return compression.open(connection);
+    }
+
+    private static class Pings implements SseHeartbeat.Target {
+
+        private volatile long lastWriteNanos = System.nanoTime();
+        private volatile FluxSink<SseFrame> sink;
+
+        void start(FluxSink<SseFrame> sink) {
+            this.sink = sink;
+            sink.onDispose(() -> this.sink = null);
+        }
+
+        void written() {
+            lastWriteNanos = System.nanoTime();
+        }
+
+        @Override
+        public long getLastWriteNanos() {
+            return lastWriteNanos;
+        }
+
+        @Override
+        public boolean ping() {
+            FluxSink<SseFrame> sink = this.sink;
+            if (sink == null || sink.isCancelled()) {
+                return false;
+            }
+            sink.next(SseHeartbeat.PING);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package demo.sse.server.web.flux.controller;
+
+import demo.sse.server.common.sse.SseFrame;
+import demo.sse.server.common.sse.SseFrameEncoder;
+import demo.sse.server.common.sse.SseTopic;
+import reactor.core.Disposable;
+import reactor.core.publisher.FluxSink;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+class SseStream {
+
+    private static final String EVENT = "stream";
+
+    private final String id;
+    private final SseTopics topics;
+    private final SseFrameEncoder encoder;
+
+    private final Map<SseTopic, Disposable> subscriptions = new EnumMap<>(SseTopic.class);
+    private FluxSink<SseFrame> sink;
+    private boolean closed;
+
+    SseStream(String id, SseTopics topics, SseFrameEncoder encoder) {
+        this.id = id;
+        this.topics = topics;
+        this.encoder = encoder;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    synchronized void open(FluxSink<SseFrame> sink, Set<SseTopic> initial) {
+        this.sink = sink;
+        update(initial, Collections.emptySet());
+    }
+
+    synchronized Set<SseTopic> update(Collection<SseTopic> added, Collection<SseTopic> removed) {
+        if (closed || sink == null) {
+            return EnumSet.noneOf(SseTopic.class);
+        }
+
+        for (SseTopic topic : removed) {
+            Disposable subscription = subscriptions.remove(topic);
+            if (subscription != null) {
+                subscription.dispose();
+            }
+        }
+        Set<SseTopic> current = EnumSet.noneOf(SseTopic.class);
+        current.addAll(subscriptions.keySet());
+        current.addAll(added);
+
+        Map<String, Object> control = new LinkedHashMap<>();
+        control.put("id", id);
+        control.put("topics", SseTopic.getNames(current));
+        sink.next(encoder.encode(null, EVENT, control));
+
+        for (SseTopic topic : added) {
+            if (!subscriptions.containsKey(topic)) {
+                subscriptions.put(topic, topics.get(topic).subscribe(sink::next, sink::error));
+            }
+        }
+        return current;
+    }
+
+    synchronized void close() {
+        closed = true;
+        subscriptions.values().forEach(Disposable::dispose);
+        subscriptions.clear();
+    }
+}
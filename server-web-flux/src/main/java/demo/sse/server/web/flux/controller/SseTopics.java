@@ -0,0 +1,31 @@
+package demo.sse.server.web.flux.controller;
+
+import demo.sse.server.common.sse.SseFrame;
+import demo.sse.server.common.sse.SseTopic;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+class SseTopics {
+
+    private final Map<SseTopic, Flux<SseFrame>> tagged = new ConcurrentHashMap<>();
+
+    void register(SseTopic topic, Flux<SseFrame> frames) {
+        tagged.put(topic, frames
+                .onBackpressureDrop()
+                .map(topic::tag)
+                .publish()
+                .refCount());
+    }
+
+    Flux<SseFrame> get(SseTopic topic) {
+        Flux<SseFrame> frames = tagged.get(topic);
+        if (frames == null) {
+            throw new IllegalStateException("Topic is not registered: " + topic.getName());
+        }
+        return frames;
+    }
+}
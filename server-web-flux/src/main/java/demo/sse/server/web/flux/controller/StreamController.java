@@ -0,0 +1,92 @@
+package demo.sse.server.web.flux.controller;
+
+import demo.sse.server.common.sse.OverflowPolicy;
+import demo.sse.server.common.sse.SseAdmission;
+import demo.sse.server.common.sse.SseFrame;
+import demo.sse.server.common.sse.SseFrameEncoder;
+import demo.sse.server.common.sse.SseTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@RestController
+@RequestMapping("/sse/flux")
+public class StreamController {
+
+    private final SseTopics topics;
+    private final SseFrameEncoder encoder;
+    private final SseAdmission admission;
+    private final SseResponses responses;
+    private final int bufferSize;
+    private final OverflowPolicy overflowPolicy;
+
+    private final Map<String, SseStream> streams = new ConcurrentHashMap<>();
+
+    StreamController(SseTopics topics, SseFrameEncoder encoder, SseAdmission admission, SseResponses responses,
+                     @Value("${sse.flux.stream.buffer-size:256}") int bufferSize,
+                     @Value("${sse.flux.stream.overflow-policy:DROP_OLDEST}") OverflowPolicy overflowPolicy) {
+        this.topics = topics;
+        this.encoder = encoder;
+        this.admission = admission;
+        this.responses = responses;
+        this.bufferSize = bufferSize;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    Mono<Void> getStream(@RequestParam(required = false) String topics,
+                         ServerWebExchange exchange) {
+        Set<SseTopic> parsed = parseTopics(topics);
+
+        SseStream stream = new SseStream(UUID.randomUUID().toString(), this.topics, encoder);
+        Flux<SseFrame> frames = Flux.create(sink -> {
+            sink.onDispose(() -> {
+                streams.remove(stream.getId());
+                stream.close();
+            });
+            streams.put(stream.getId(), stream);
+            stream.open(sink, parsed);
+        }, FluxSink.OverflowStrategy.IGNORE);
+
+        return responses.write(exchange, admission.admit("flux/stream"), SseResponses.buffer(frames, bufferSize, overflowPolicy));
+    }
+
+    @PostMapping(path = "/stream/{id}/topics")
+    List<String> updateStreamTopics(@PathVariable String id,
+                                    @RequestParam(required = false) String add,
+                                    @RequestParam(required = false) String remove) {
+        Set<SseTopic> added = parseTopics(add);
+        Set<SseTopic> removed = parseTopics(remove);
+
+        SseStream stream = streams.get(id);
+        if (stream == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Stream is not found: " + id);
+        }
+        return SseTopic.getNames(stream.update(added, removed));
+    }
+
+    private static Set<SseTopic> parseTopics(String topics) {
+        try {
+            return SseTopic.parse(topics);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
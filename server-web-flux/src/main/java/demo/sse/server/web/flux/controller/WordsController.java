@@ -1,5 +1,10 @@
 package demo.sse.server.web.flux.controller;
 
+import demo.sse.server.common.sse.EventJournal;
+import demo.sse.server.common.sse.EventJournals;
+import demo.sse.server.common.sse.SseAdmission;
+import demo.sse.server.common.sse.SseStatistics;
+import demo.sse.server.common.sse.SseTopic;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -15,10 +20,24 @@ public class WordsController {
 
     private static final String[] WORDS = "The quick brown fox jumps over the lazy dog.".split(" ");
 
+    private final SseAdmission admission;
+
+    WordsController(SseAdmission admission, EventJournals journals, SseTopics topics) {
+        this.admission = admission;
+
+        EventJournal journal = journals.get("flux/stream/words");
+        topics.register(SseTopic.WORDS, Flux
+                .interval(Duration.ofSeconds(5))
+                .onBackpressureDrop()
+                .map(sequence -> journal.append(WORDS[(int) (sequence % WORDS.length)])));
+    }
+
     @GetMapping(path = "/words", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     Flux<String> getWords() {
+        SseStatistics.Connection connection = admission.admit("flux/words");
         return Flux
                 .zip(Flux.just(WORDS), Flux.interval(Duration.ofSeconds(1)))
-                .map(Tuple2::getT1);
+                .map(Tuple2::getT1)
+                .doFinally(signal -> connection.close());
     }
 }
@@ -66,11 +66,104 @@ var diagram2 = new Diagram('top-right', ['Committed virtual memory size']);
 var diagram3 = new Diagram('bottom-left', ['Total physical memory size', 'Free physical memory size']);
 var diagram4 = new Diagram('bottom-right', ['Total swap space size', 'Free swap space size']);
 
-var eventSource = new EventSource('http://localhost:8080/sse/flux/performance?seconds=1');
+function PerformanceDecoder(encoding) {
+    var fields = ['time', 'committedVirtualMemorySize', 'totalSwapSpaceSize', 'freeSwapSpaceSize',
+        'totalPhysicalMemorySize', 'freePhysicalMemorySize', 'systemCpuLoad', 'processCpuLoad'];
+    var keys = ['t', 'cv', 'ts', 'fs', 'tp', 'fp', 'sc', 'pc'];
+    var cpuLoadScale = 10000;
+
+    var state = null;
+    var lastId = null;
+
+    function readVarints(data) {
+        var bytes = atob(data);
+        var values = [];
+        var value = 0;
+        var multiplier = 1;
+        for (var i = 0; i < bytes.length; i++) {
+            var b = bytes.charCodeAt(i);
+            value += (b & 0x7F) * multiplier;
+            multiplier *= 128;
+            if ((b & 0x80) === 0) {
+                values.push(value);
+                value = 0;
+                multiplier = 1;
+            }
+        }
+        return values;
+    }
+
+    function unzigzag(value) {
+        return (value % 2 === 0) ? value / 2 : -(value + 1) / 2;
+    }
+
+    function decodeDelta(data, chained) {
+        var delta = JSON.parse(data);
+        if (!delta.k && !chained) {
+            return false;
+        }
+        if (delta.k) {
+            state = {};
+        }
+        for (var i = 0; i < keys.length; i++) {
+            if (delta.hasOwnProperty(keys[i])) {
+                state[fields[i]] = delta[keys[i]];
+            }
+        }
+        return true;
+    }
+
+    function decodeBinary(data, chained) {
+        var values = readVarints(data);
+        var keyframe = values[0] % 2 === 1;
+        var mask = Math.floor(values[0] / 2);
+        if (!keyframe && !chained) {
+            return false;
+        }
+        if (keyframe) {
+            state = {};
+        }
+        for (var i = 0, j = 1; i < fields.length; i++) {
+            if ((mask & (1 << i)) !== 0) {
+                var value = unzigzag(values[j++]);
+                if (i >= 6) {
+                    var scaled = keyframe ? value : Math.round(state[fields[i]] * cpuLoadScale) + value;
+                    state[fields[i]] = scaled / cpuLoadScale;
+                } else {
+                    state[fields[i]] = keyframe ? value : state[fields[i]] + value;
+                }
+            }
+        }
+        return true;
+    }
+
+    this.decode = function (message) {
+        if (encoding === 'json') {
+            return JSON.parse(message.data);
+        }
+
+        var id = Number(message.lastEventId);
+        var chained = state !== null && id === lastId + 1;
+        var decoded = (encoding === 'binary') ? decodeBinary(message.data, chained) : decodeDelta(message.data, chained);
+        lastId = id;
+        if (!decoded) {
+            state = null;
+        }
+        return state;
+    };
+}
+
+var encoding = new URLSearchParams(window.location.search).get('encoding') || 'json';
+var decoder = new PerformanceDecoder(encoding);
+
+var eventSource = new EventSource('http://localhost:8080/sse/flux/performance?seconds=1&encoding=' + encoding);
 
 eventSource.onmessage = function (message) {
 
-    var performance = JSON.parse(message.data);
+    var performance = decoder.decode(message);
+    if (performance === null) {
+        return;
+    }
     var time = performance.time;
 
     diagram1.addPoints([
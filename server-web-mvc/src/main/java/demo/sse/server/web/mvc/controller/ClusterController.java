@@ -0,0 +1,26 @@
+package demo.sse.server.web.mvc.controller;
+
+import demo.sse.server.common.cluster.ClusterRelay;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/sse/mvc")
+public class ClusterController {
+
+    private final Optional<ClusterRelay> clusterRelay;
+
+    ClusterController(Optional<ClusterRelay> clusterRelay) {
+        this.clusterRelay = clusterRelay;
+    }
+
+    @GetMapping(path = "/cluster")
+    ClusterRelay getCluster() {
+        return clusterRelay.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Cluster relay is disabled"));
+    }
+}
@@ -0,0 +1,71 @@
+package demo.sse.server.web.mvc.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+final class EncodedEventBuilder implements SseEmitter.SseEventBuilder {
+
+    private final byte[] bytes;
+    private SseEmitter.SseEventBuilder next;
+
+    EncodedEventBuilder(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    @Override
+    public SseEmitter.SseEventBuilder id(String id) {
+        next().id(id);
+        return this;
+    }
+
+    @Override
+    public SseEmitter.SseEventBuilder name(String eventName) {
+        next().name(eventName);
+        return this;
+    }
+
+    @Override
+    public SseEmitter.SseEventBuilder reconnectTime(long reconnectTimeMillis) {
+        next().reconnectTime(reconnectTimeMillis);
+        return this;
+    }
+
+    @Override
+    public SseEmitter.SseEventBuilder comment(String comment) {
+        next().comment(comment);
+        return this;
+    }
+
+    @Override
+    public SseEmitter.SseEventBuilder data(Object object) {
+        next().data(object);
+        return this;
+    }
+
+    @Override
+    public SseEmitter.SseEventBuilder data(Object object, MediaType mediaType) {
+        next().data(object, mediaType);
+        return this;
+    }
+
+    @Override
+    public Set<ResponseBodyEmitter.DataWithMediaType> build() {
+        Set<ResponseBodyEmitter.DataWithMediaType> data = new LinkedHashSet<>(4);
+        data.add(new ResponseBodyEmitter.DataWithMediaType(bytes, MediaType.TEXT_EVENT_STREAM));
+        if (next != null) {
+            data.addAll(next.build());
+        }
+        return data;
+    }
+
+    private SseEmitter.SseEventBuilder next() {
+        if (next == null) {
+            next = SseEmitter.event();
+        }
+        return next;
+    }
+}
@@ -0,0 +1,24 @@
+package demo.sse.server.web.mvc.controller;
+
+import demo.sse.server.common.bus.EventBus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/sse/mvc")
+public class EventBusController {
+
+    private final List<EventBus<?>> eventBuses;
+
+    EventBusController(List<EventBus<?>> eventBuses) {
+        this.eventBuses = eventBuses;
+    }
+
+    @GetMapping(path = "/event-buses")
+    List<EventBus<?>> getEventBuses() {
+        return eventBuses;
+    }
+}
@@ -1,40 +1,154 @@
 package demo.sse.server.web.mvc.controller;
 
+import demo.sse.server.common.bus.EventBus;
 import demo.sse.server.common.file.FolderChangeEvent;
+import demo.sse.server.common.file.FolderChangeFilter;
 import demo.sse.server.common.file.FolderWatchService;
-import org.springframework.context.ApplicationListener;
+import demo.sse.server.common.file.FolderWatchVariants;
+import demo.sse.server.common.file.PathPrefixIndex;
+import demo.sse.server.common.sse.EventJournals;
+import demo.sse.server.common.sse.SseAdmission;
+import demo.sse.server.common.sse.SseStatistics;
+import demo.sse.server.common.sse.SseTopic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/sse/mvc")
-public class FolderWatchController implements ApplicationListener<FolderChangeEvent> {
+public class FolderWatchController {
+
+    private static final Logger logger = LoggerFactory.getLogger(FolderWatchController.class);
 
     private final FolderWatchService folderWatchService;
+    private final EventBus<FolderChangeEvent> eventBus;
+    private final EventJournals journals;
+    private final SseDispatcher dispatcher;
+    private final SseAdmission admission;
+    private final SseTopics topics;
+    private final SseStatistics statistics;
+    private final FolderWatchVariants<SseEmitters> variants;
+    private final long evictionMillis;
+
+    private final ScheduledExecutorService scheduledExecutor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("folder-watch-eviction-"));
 
-    FolderWatchController(FolderWatchService folderWatchService) {
+    private volatile SseEmitters topicEmitters;
+
+    FolderWatchController(FolderWatchService folderWatchService,
+                          EventBus<FolderChangeEvent> eventBus,
+                          EventJournals journals,
+                          SseDispatcher dispatcher,
+                          SseAdmission admission,
+                          SseTopics topics,
+                          SseStatistics statistics,
+                          @Value("${sse.mvc.folder-watch.max-variants:64}") int maxVariants,
+                          @Value("${sse.mvc.folder-watch.eviction-millis:60000}") long evictionMillis) {
         this.folderWatchService = folderWatchService;
-    }
+        this.eventBus = eventBus;
+        this.journals = journals;
+        this.dispatcher = dispatcher;
+        this.admission = admission;
+        this.topics = topics;
+        this.statistics = statistics;
+        this.variants = new FolderWatchVariants<>(maxVariants, new FolderWatchVariants.Lifecycle<SseEmitters>() {
+            @Override
+            public SseEmitters create(Path prefix, FolderChangeFilter filter) {
+                return createEmitters(prefix, filter);
+            }
 
-    private final SseEmitters emitters = new SseEmitters();
+            @Override
+            public boolean isIdle(SseEmitters emitters) {
+                return emitters != topicEmitters && !emitters.hasSubscribers() && statistics.getConnections(emitters.getName()) == 0;
+            }
+
+            @Override
+            public void evict(SseEmitters emitters) {
+                journals.remove(emitters.getName());
+                statistics.remove(emitters.getName());
+                logger.info("Folder watch variant evicted: {}", emitters.getName());
+            }
+
+            @Override
+            public RuntimeException reject(String reason) {
+                return admission.reject(reason);
+            }
+        });
+        this.evictionMillis = evictionMillis;
+    }
 
     @PostConstruct
     void init() {
-        folderWatchService.start(System.getProperty("user.home"));
+        topicEmitters = variants.get(PathPrefixIndex.toPrefix(null), FolderChangeFilter.ALL);
+        topics.register(SseTopic.FOLDER_WATCH, topicEmitters);
+        eventBus.subscribe("mvc", this::onFolderChange);
+        scheduledExecutor.scheduleWithFixedDelay(variants::evictIdle, evictionMillis, evictionMillis, TimeUnit.MILLISECONDS);
+        folderWatchService.start();
+    }
+
+    @PreDestroy
+    void destroy() {
+        scheduledExecutor.shutdownNow();
     }
 
     @GetMapping(path = "/folder-watch", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    SseEmitter getFolderWatch() {
-        return emitters.add(new SseEmitter(60000L));
+    SseEmitter getFolderWatch(@RequestParam(required = false) String path,
+                              @RequestParam(required = false) String glob,
+                              @RequestParam(required = false) String actions,
+                              @RequestHeader(name = "Last-Event-ID", required = false) String lastId) {
+        Path prefix = PathPrefixIndex.toPrefix(path);
+        FolderChangeFilter filter = parseFilter(glob, actions);
+        SseEmitter emitter = new SseEmitter(60000L);
+        variants.compute(prefix, filter, emitters -> emitters.add(emitter, lastId));
+        return emitter;
+    }
+
+    private void onFolderChange(FolderChangeEvent event) {
+        FolderChangeEvent.Batch batch = event.getBatch();
+        variants.route(batch.getEvents()).forEach((filterEmitters, events) ->
+                filterEmitters.forEach((filter, routeEmitters) -> {
+                    List<FolderChangeEvent.Event> filtered = filter.filter(events);
+                    if (!filtered.isEmpty()) {
+                        routeEmitters.send(filtered.size() == batch.getEvents().size() ? batch : new FolderChangeEvent.Batch(filtered));
+                    }
+                })
+        );
+    }
+
+    private SseEmitters createEmitters(Path prefix, FolderChangeFilter filter) {
+        StringJoiner query = new StringJoiner("&", "?", "").setEmptyValue("");
+        if (!prefix.toString().isEmpty()) {
+            query.add("path=" + prefix);
+        }
+        if (filter != FolderChangeFilter.ALL) {
+            query.add(filter.getQuery());
+        }
+        return new SseEmitters(journals.get("mvc/folder-watch" + query), dispatcher, admission);
     }
 
-    @Override
-    public void onApplicationEvent(FolderChangeEvent event) {
-        emitters.send(event.getEvent());
+    private static FolderChangeFilter parseFilter(String glob, String actions) {
+        try {
+            return FolderChangeFilter.of(glob, actions);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 }
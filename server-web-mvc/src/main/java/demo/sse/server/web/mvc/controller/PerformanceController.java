@@ -1,43 +1,239 @@
 package demo.sse.server.web.mvc.controller;
 
+import demo.sse.domain.common.Performance;
+import demo.sse.domain.common.PerformanceAggregate;
+import demo.sse.server.common.history.HistoryCursor;
+import demo.sse.server.common.history.PerformanceHistory;
+import demo.sse.server.common.management.PerformanceDeltaEncoder;
+import demo.sse.server.common.management.MetricSources;
+import demo.sse.server.common.management.PerformanceEncoding;
+import demo.sse.server.common.management.PerformanceProjection;
+import demo.sse.server.common.management.PerformanceSampling;
 import demo.sse.server.common.management.PerformanceService;
+import demo.sse.server.common.management.PerformanceWindows;
+import demo.sse.server.common.sse.EventJournal;
+import demo.sse.server.common.sse.EventJournals;
+import demo.sse.server.common.sse.SseFrame;
+import demo.sse.server.common.sse.SseFrameEncoder;
+import demo.sse.server.common.sse.SseAdmission;
+import demo.sse.server.common.sse.SseTopic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 
 @RestController
 @RequestMapping("/sse/mvc")
 public class PerformanceController {
 
+    private static final Logger logger = LoggerFactory.getLogger(PerformanceController.class);
+
     private final PerformanceService performanceService;
+    private final MetricSources metricSources;
+    private final PerformanceHistory history;
+    private final EventJournals journals;
+    private final SseDispatcher dispatcher;
+    private final SseAdmission admission;
+    private final PerformanceSampling sampling;
+    private final SseFrameEncoder frameEncoder;
+    private final ExecutorService historyExecutor;
 
-    PerformanceController(PerformanceService performanceService) {
+    PerformanceController(PerformanceService performanceService, MetricSources metricSources, PerformanceHistory history,
+                          EventJournals journals, SseDispatcher dispatcher, SseAdmission admission, SseExecutors executors,
+                          SseTopics topics, PerformanceSampling sampling, SseFrameEncoder frameEncoder,
+                          @Value("${sse.performance.keyframe-interval:60}") int keyframeInterval,
+                          @Value("${sse.mvc.history.threads:2}") int historyThreads,
+                          @Value("${sse.performance.aggregation.resolutions:1,10,60,300}") int[] resolutions) {
         this.performanceService = performanceService;
+        this.metricSources = metricSources;
+        this.history = history;
+        this.journals = journals;
+        this.dispatcher = dispatcher;
+        this.admission = admission;
+        this.sampling = sampling;
+        this.frameEncoder = frameEncoder;
+        this.schedule = sampling.schedule(1);
+        this.historyExecutor = executors.newFixedThreadPool(historyThreads, "sse-history-");
+        this.windows = new PerformanceWindows(1, resolutions);
+        for (int resolution : resolutions) {
+            EventJournal journal = journals.get("mvc/performance/aggregates?resolution=" + resolution);
+            this.aggregateEmitters.put(resolution, new SseEmitters(journal, dispatcher, admission));
+        }
+        for (PerformanceEncoding encoding : PerformanceEncoding.values()) {
+            String journalName = "mvc/performance";
+            if (encoding != PerformanceEncoding.JSON) {
+                journalName += "?encoding=" + encoding.name().toLowerCase(Locale.ROOT);
+                this.encoders.put(encoding, new PerformanceDeltaEncoder(encoding, keyframeInterval));
+            }
+            this.emitters.put(encoding, new SseEmitters(journals.get(journalName), dispatcher, admission));
+        }
+        topics.register(SseTopic.PERFORMANCE, this.emitters.get(PerformanceEncoding.JSON));
     }
 
-    private final AtomicInteger id = new AtomicInteger();
-
     private final ScheduledExecutorService scheduledThreadPool = Executors.newScheduledThreadPool(1);
 
-    private final SseEmitters emitters = new SseEmitters();
+    private final Map<PerformanceEncoding, SseEmitters> emitters = new EnumMap<>(PerformanceEncoding.class);
+    private final Map<PerformanceEncoding, PerformanceDeltaEncoder> encoders = new EnumMap<>(PerformanceEncoding.class);
+    private final Map<PerformanceProjection, SseEmitters> projectionEmitters = new ConcurrentHashMap<>();
+
+    private final PerformanceWindows windows;
+    private final PerformanceSampling.Schedule schedule;
+    private final Map<Integer, SseEmitters> aggregateEmitters = new HashMap<>();
 
     @PostConstruct
     void init() {
         scheduledThreadPool.scheduleAtFixedRate(() -> {
-            emitters.send(performanceService.getPerformance());
+            boolean live = hasSubscribers(emitters.values()) || hasSubscribers(projectionEmitters.values());
+            boolean aggregated = hasSubscribers(aggregateEmitters.values());
+            if (live) {
+                live = schedule.due();
+            }
+            if (!aggregated) {
+                windows.reset();
+            }
+            if (!live && !aggregated) {
+                return;
+            }
+
+            Performance performance = performanceService.getPerformance();
+            sampling.sampled(performance);
+            if (live) {
+                send(performance);
+            }
+            if (aggregated) {
+                for (PerformanceAggregate aggregate : windows.add(performance)) {
+                    aggregateEmitters.get(aggregate.getResolution()).send(aggregate);
+                }
+            }
         }, 0, 1, TimeUnit.SECONDS);
+
+        sampling.addListener(() -> {
+            SseFrame frame = frameEncoder.encode(null, "sampling", sampling.getState(schedule.getTier()));
+            emitters.values().forEach(encodingEmitters -> encodingEmitters.send(frame));
+            projectionEmitters.values().forEach(projectedEmitters -> projectedEmitters.send(frame));
+        });
+    }
+
+    private void send(Performance performance) {
+        emitters.forEach((encoding, encodingEmitters) -> {
+            if (!encodingEmitters.hasSubscribers()) {
+                return;
+            }
+            PerformanceDeltaEncoder encoder = encoders.get(encoding);
+            if (encoder == null) {
+                encodingEmitters.send(performance.getTime(), performance);
+            } else {
+                encodingEmitters.send(encoder.encode(performance), encoder.keyframe());
+            }
+        });
+        projectionEmitters.forEach((projection, projectedEmitters) -> {
+            if (projectedEmitters.hasSubscribers()) {
+                projectedEmitters.send(projection.apply(performance, metricSources));
+            }
+        });
+    }
+
+    private static boolean hasSubscribers(Collection<SseEmitters> emitters) {
+        for (SseEmitters sseEmitters : emitters) {
+            if (sseEmitters.hasSubscribers()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @GetMapping(path = "/performance", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    SseEmitter getPerformance() {
-        return emitters.add();
+    SseEmitter getPerformance(@RequestParam(defaultValue = "json") PerformanceEncoding encoding,
+                              @RequestParam(required = false) String fields,
+                              @RequestParam(required = false) String metrics,
+                              @RequestHeader(name = "Last-Event-ID", required = false) String lastId) {
+        PerformanceProjection projection = parseProjection(fields, metrics);
+        if (projection.isAll()) {
+            return emitters.get(encoding).add(lastId);
+        }
+        if (encoding != PerformanceEncoding.JSON) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Fields and metrics are supported only by JSON encoding");
+        }
+
+        return projectionEmitters
+                .computeIfAbsent(projection, key -> new SseEmitters(
+                        journals.get("mvc/performance?" + key.getQuery()), dispatcher, admission))
+                .add(lastId);
+    }
+
+    @GetMapping(path = "/performance/history", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter getPerformanceHistory(@RequestParam long from,
+                                     @RequestParam(required = false) Long to) {
+        SseEmitters liveEmitters = emitters.get(PerformanceEncoding.JSON);
+        SseEmitter emitter = new SseEmitter();
+        SseSubscriber subscriber = (to != null)
+                ? liveEmitters.open(emitter, "mvc/performance/history")
+                : liveEmitters.hold(emitter, "mvc/performance/history");
+        historyExecutor.execute(() -> {
+            try {
+                HistoryCursor cursor = history.query(from, (to != null) ? to : Long.MAX_VALUE);
+                for (SseFrame frame = cursor.next(); frame != null; frame = cursor.next()) {
+                    subscriber.write(frame);
+                }
+                logger.info("Emitter replayed {} history records: {}", cursor.getRecords(), emitter);
+
+                if (to == null) {
+                    subscriber.release(cursor.getLastTime());
+                } else {
+                    subscriber.complete();
+                }
+            } catch (Exception e) {
+                logger.info("Emitter failed during history replay: {}", emitter);
+                subscriber.close();
+                subscriber.unregister();
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    @GetMapping(path = "/performance/metrics")
+    Set<String> getPerformanceMetrics() {
+        return metricSources.getNames();
+    }
+
+    @GetMapping(path = "/performance/aggregates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter getPerformanceAggregates(@RequestParam int resolution,
+                                        @RequestParam(defaultValue = "0") int history,
+                                        @RequestHeader(name = "Last-Event-ID", required = false) String lastId) {
+        SseEmitters emitters = aggregateEmitters.get(resolution);
+        if (emitters == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Resolution is not aggregated: " + resolution);
+        }
+        return emitters.add((lastId == null && history > 0) ? emitters.getHistoryStartId(history) : lastId);
+    }
+
+    private PerformanceProjection parseProjection(String fields, String metrics) {
+        try {
+            return PerformanceProjection.of(fields, metricSources.parse(metrics));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 }
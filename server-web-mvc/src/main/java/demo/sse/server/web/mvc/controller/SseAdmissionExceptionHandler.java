@@ -0,0 +1,21 @@
+package demo.sse.server.web.mvc.controller;
+
+import demo.sse.server.common.sse.SseAdmissionException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+class SseAdmissionExceptionHandler {
+
+    @ExceptionHandler(SseAdmissionException.class)
+    ResponseEntity<String> handleAdmissionException(SseAdmissionException e) {
+        return ResponseEntity
+                .status(e.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf((e.getRetryMillis() + 999) / 1000))
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(e.toEventStream());
+    }
+}
@@ -0,0 +1,91 @@
+package demo.sse.server.web.mvc.controller;
+
+import demo.sse.server.common.sse.OverflowPolicy;
+import demo.sse.server.common.sse.SseCompression;
+import demo.sse.server.common.sse.SseHeartbeat;
+import demo.sse.server.common.sse.SseStatistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Component
+class SseDispatcher {
+
+    private static final long EXPIRY_MARGIN_MILLIS = 1000;
+
+    private final ExecutorService workers;
+    private final ScheduledExecutorService expiryExecutor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("sse-expiry-"));
+    private final SseHeartbeat heartbeat;
+    private final SseCompression compression;
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
+    private final long asyncTimeoutMillis;
+
+    SseDispatcher(SseExecutors executors, SseHeartbeat heartbeat, SseCompression compression,
+                  @Value("${sse.mvc.dispatcher.threads:4}") int threads,
+                  @Value("${sse.mvc.subscriber.queue-capacity:16}") int queueCapacity,
+                  @Value("${sse.mvc.subscriber.overflow-policy:DROP_OLDEST}") OverflowPolicy overflowPolicy,
+                  @Value("${spring.mvc.async.request-timeout:30000}") long asyncTimeoutMillis) {
+        this.workers = executors.newFixedThreadPool(threads, "sse-dispatcher-");
+        this.heartbeat = heartbeat;
+        this.compression = compression;
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
+        this.asyncTimeoutMillis = asyncTimeoutMillis;
+    }
+
+    int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    void execute(Runnable task) {
+        workers.execute(task);
+    }
+
+    void keepAlive(SseSubscriber subscriber) {
+        heartbeat.register(subscriber);
+        if (subscriber.isCompressed()) {
+            Long timeout = subscriber.getEmitter().getTimeout();
+            long timeoutMillis = (timeout != null) ? timeout : asyncTimeoutMillis;
+            if (timeoutMillis > 0) {
+                long delayMillis = timeoutMillis - Math.min(EXPIRY_MARGIN_MILLIS, timeoutMillis / 10);
+                subscriber.setExpiry(expiryExecutor.schedule(() -> execute(subscriber::expire), delayMillis, TimeUnit.MILLISECONDS));
+            }
+        }
+    }
+
+    SseCompression.Stream negotiateCompression(SseStatistics.Connection connection) {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        if (attributes == null || attributes.getResponse() == null || !compression.isEnabled()) {
+            return null;
+        }
+
+        HttpServletResponse response = attributes.getResponse();
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!compression.accepts(attributes.getRequest().getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return null;
+        }
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, SseCompression.GZIP);
+        return compression.open(connection);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        expiryExecutor.shutdownNow();
+        workers.shutdownNow();
+    }
+}
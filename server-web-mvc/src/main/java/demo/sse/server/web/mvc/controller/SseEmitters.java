@@ -1,67 +1,165 @@
 package demo.sse.server.web.mvc.controller;
 
+import demo.sse.server.common.sse.BroadcastReport;
+import demo.sse.server.common.sse.EventJournal;
+import demo.sse.server.common.sse.SseAdmission;
+import demo.sse.server.common.sse.SseFrame;
+import demo.sse.server.common.sse.SseTopic;
+import demo.sse.server.common.sse.SubscriberRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 class SseEmitters {
 
     private static final Logger logger = LoggerFactory.getLogger(SseEmitters.class);
 
-    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final SubscriberRegistry<SseSubscriber> subscribers = new SubscriberRegistry<>();
+    private final Map<SseTopic, SubscriberRegistry<SseSubscriber>> topicSubscribers = new ConcurrentHashMap<>();
 
-    SseEmitter add() {
-        return add(new SseEmitter());
+    private final LongAdder writtenBytes = new LongAdder();
+
+    private final EventJournal journal;
+    private final SseDispatcher dispatcher;
+    private final SseAdmission admission;
+
+    SseEmitters(EventJournal journal, SseDispatcher dispatcher, SseAdmission admission) {
+        this.journal = journal;
+        this.dispatcher = dispatcher;
+        this.admission = admission;
+    }
+
+    String getName() {
+        return journal.getName();
+    }
+
+    SseEmitter add(String lastEventId) {
+        return add(new SseEmitter(), lastEventId);
+    }
+
+    SseEmitter add(SseEmitter emitter, String lastEventId) {
+        SseSubscriber subscriber = open(emitter, journal.getName());
+        synchronized (journal) {
+            List<SseFrame> missed = journal.replay(lastEventId);
+            if (!missed.isEmpty()) {
+                logger.info("Emitter replays {} missed events after id {}: {}", missed.size(), lastEventId, emitter);
+                subscriber.preload(missed);
+            }
+            subscriber.register(this.subscribers);
+        }
+        return emitter;
     }
 
-    SseEmitter add(SseEmitter emitter) {
-        this.emitters.add(emitter);
+    SseSubscriber hold(SseEmitter emitter, String name) {
+        SseSubscriber subscriber = open(emitter, name);
+        subscriber.hold();
+        subscriber.register(this.subscribers);
+        return subscriber;
+    }
+
+    SseSubscriber open(SseEmitter emitter, String name) {
+        SseSubscriber subscriber = new SseSubscriber(emitter, dispatcher, admission.admit(name), writtenBytes, SseSubscriber::unregister);
+        dispatcher.keepAlive(subscriber);
 
         emitter.onCompletion(() -> {
             logger.info("Emitter completed: {}", emitter);
-            this.emitters.remove(emitter);
+            subscriber.close();
+            subscriber.unregister();
         });
         emitter.onTimeout(() -> {
             logger.info("Emitter timed out: {}", emitter);
-            emitter.complete();
-            this.emitters.remove(emitter);
+            subscriber.complete();
+            subscriber.unregister();
         });
 
-        return emitter;
+        return subscriber;
+    }
+
+    SubscriberRegistry.Registration addTopic(SseTopic topic, SseSubscriber subscriber) {
+        return topicSubscribers.computeIfAbsent(topic, key -> new SubscriberRegistry<>()).add(subscriber);
     }
 
-    void send(Object obj) {
-        send(emitter -> emitter.send(obj));
+    boolean hasSubscribers() {
+        if (subscribers.size() > 0) {
+            return true;
+        }
+        for (SubscriberRegistry<SseSubscriber> registry : topicSubscribers.values()) {
+            if (registry.size() > 0) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    void send(SseEmitter.SseEventBuilder builder) {
-        send(emitter -> emitter.send(builder));
+    String getHistoryStartId(int history) {
+        return String.valueOf(Math.max(0, journal.getLastId() - history));
     }
 
-    private void send(SseEmitterConsumer<SseEmitter> consumer) {
-        List<SseEmitter> failedEmitters = new ArrayList<>();
+    long getWrittenBytes() {
+        return writtenBytes.sum();
+    }
 
-        this.emitters.forEach(emitter -> {
-            try {
-                consumer.accept(emitter);
-            } catch (Exception e) {
-                emitter.completeWithError(e);
-                failedEmitters.add(emitter);
-                logger.error("Emitter failed: {}", emitter, e);
-            }
-        });
+    BroadcastReport send(Object obj) {
+        synchronized (journal) {
+            return send(journal.append(obj));
+        }
+    }
+
+    BroadcastReport send(Object obj, Object snapshot) {
+        synchronized (journal) {
+            return send(journal.append(obj, snapshot));
+        }
+    }
+
+    BroadcastReport send(long time, Object obj) {
+        synchronized (journal) {
+            return send(journal.append(obj), time);
+        }
+    }
 
-        this.emitters.removeAll(failedEmitters);
+    BroadcastReport send(SseFrame frame) {
+        return send(frame, SseFrameEvent.UNTIMED);
     }
 
-    @FunctionalInterface
-    private interface SseEmitterConsumer<T> {
+    private BroadcastReport send(SseFrame frame, long time) {
+        LongAdder broadcastBytes = new LongAdder();
+        SseFrameEvent event = new SseFrameEvent(frame, broadcastBytes, time);
+        int subscribers = 0;
+        int disconnected = 0;
+        long queuedBytes = 0;
+
+        for (SseSubscriber subscriber : this.subscribers) {
+            subscribers++;
+            if (subscriber.offer(event)) {
+                queuedBytes += frame.size();
+            } else {
+                disconnected++;
+            }
+        }
+
+        for (Map.Entry<SseTopic, SubscriberRegistry<SseSubscriber>> entry : topicSubscribers.entrySet()) {
+            if (entry.getValue().size() == 0) {
+                continue;
+            }
+            SseFrame tagged = entry.getKey().tag(frame);
+            SseFrameEvent taggedEvent = new SseFrameEvent(tagged, broadcastBytes, time);
+            for (SseSubscriber subscriber : entry.getValue()) {
+                subscribers++;
+                if (subscriber.offer(taggedEvent)) {
+                    queuedBytes += tagged.size();
+                } else {
+                    disconnected++;
+                }
+            }
+        }
 
-        void accept(T t) throws IOException;
+        BroadcastReport report = new BroadcastReport(subscribers, disconnected, frame.size(), queuedBytes, broadcastBytes);
+        logger.debug("Frame is broadcast: {}", report);
+        return report;
     }
 }
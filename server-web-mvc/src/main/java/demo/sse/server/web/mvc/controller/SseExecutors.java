@@ -0,0 +1,41 @@
+package demo.sse.server.web.mvc.controller;
+
+import demo.sse.server.common.concurrent.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Component
+class SseExecutors {
+
+    private static final Logger logger = LoggerFactory.getLogger(SseExecutors.class);
+
+    private final boolean virtualThreads;
+
+    SseExecutors(@Value("${sse.mvc.virtual-threads:false}") boolean virtualThreads) {
+        if (virtualThreads && !VirtualThreads.isSupported()) {
+            logger.warn("Virtual threads are not supported by Java {}, platform threads are used", System.getProperty("java.version"));
+        }
+        this.virtualThreads = virtualThreads && VirtualThreads.isSupported();
+        logger.info("SSE producers run on {} threads", this.virtualThreads ? "virtual" : "platform");
+    }
+
+    ExecutorService newFixedThreadPool(int threads, String threadNamePrefix) {
+        if (virtualThreads) {
+            return VirtualThreads.newVirtualThreadPerTaskExecutor();
+        }
+        return Executors.newFixedThreadPool(threads, new CustomizableThreadFactory(threadNamePrefix));
+    }
+
+    ExecutorService newCachedThreadPool(String threadNamePrefix) {
+        if (virtualThreads) {
+            return VirtualThreads.newVirtualThreadPerTaskExecutor();
+        }
+        return Executors.newCachedThreadPool(new CustomizableThreadFactory(threadNamePrefix));
+    }
+}
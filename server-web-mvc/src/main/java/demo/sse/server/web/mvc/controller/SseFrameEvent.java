@@ -0,0 +1,38 @@
+package demo.sse.server.web.mvc.controller;
+
+import demo.sse.server.common.sse.SseFrame;
+
+import java.util.concurrent.atomic.LongAdder;
+
+final class SseFrameEvent {
+
+    static final long UNTIMED = Long.MAX_VALUE;
+
+    private final SseFrame frame;
+    private final LongAdder writtenBytes;
+    private final long time;
+
+    SseFrameEvent(SseFrame frame) {
+        this(frame, null, UNTIMED);
+    }
+
+    SseFrameEvent(SseFrame frame, LongAdder writtenBytes, long time) {
+        this.frame = frame;
+        this.writtenBytes = writtenBytes;
+        this.time = time;
+    }
+
+    SseFrame getFrame() {
+        return frame;
+    }
+
+    long getTime() {
+        return time;
+    }
+
+    void written(long bytes) {
+        if (writtenBytes != null) {
+            writtenBytes.add(bytes);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package demo.sse.server.web.mvc.controller;
+
+import demo.sse.server.common.sse.SseFrameEncoder;
+import demo.sse.server.common.sse.SseStatistics;
+import demo.sse.server.common.sse.SseTopic;
+import demo.sse.server.common.sse.SubscriberRegistry;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+class SseStream {
+
+    private static final String EVENT = "stream";
+
+    private final String id;
+    private final SseTopics topics;
+    private final SseFrameEncoder encoder;
+    private final SseSubscriber subscriber;
+    private final Consumer<SseStream> onClose;
+
+    private final Map<SseTopic, SubscriberRegistry.Registration> registrations = new EnumMap<>(SseTopic.class);
+    private boolean closed;
+
+    SseStream(String id, SseEmitter emitter, SseDispatcher dispatcher, SseStatistics.Connection connection,
+              LongAdder writtenBytes, SseTopics topics, SseFrameEncoder encoder, Consumer<SseStream> onClose) {
+        this.id = id;
+        this.topics = topics;
+        this.encoder = encoder;
+        this.subscriber = new SseSubscriber(emitter, dispatcher, connection, writtenBytes, subscriber -> close());
+        this.onClose = onClose;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    SseSubscriber getSubscriber() {
+        return subscriber;
+    }
+
+    synchronized Set<SseTopic> update(Collection<SseTopic> added, Collection<SseTopic> removed) {
+        if (closed) {
+            return EnumSet.noneOf(SseTopic.class);
+        }
+
+        for (SseTopic topic : removed) {
+            SubscriberRegistry.Registration registration = registrations.remove(topic);
+            if (registration != null) {
+                registration.remove();
+            }
+        }
+        Set<SseTopic> current = EnumSet.noneOf(SseTopic.class);
+        current.addAll(registrations.keySet());
+        current.addAll(added);
+
+        Map<String, Object> control = new LinkedHashMap<>();
+        control.put("id", id);
+        control.put("topics", SseTopic.getNames(current));
+        if (!subscriber.offer(new SseFrameEvent(encoder.encode(null, EVENT, control))) || closed) {
+            return EnumSet.noneOf(SseTopic.class);
+        }
+
+        for (SseTopic topic : added) {
+            if (!registrations.containsKey(topic)) {
+                registrations.put(topic, topics.get(topic).addTopic(topic, subscriber));
+            }
+        }
+        return current;
+    }
+
+    void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            registrations.values().forEach(SubscriberRegistry.Registration::remove);
+            registrations.clear();
+        }
+        subscriber.close();
+        onClose.accept(this);
+    }
+}
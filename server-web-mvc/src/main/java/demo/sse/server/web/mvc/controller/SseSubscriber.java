@@ -0,0 +1,267 @@
+package demo.sse.server.web.mvc.controller;
+
+import demo.sse.server.common.sse.OverflowPolicy;
+import demo.sse.server.common.sse.SseCompression;
+import demo.sse.server.common.sse.SseFrame;
+import demo.sse.server.common.sse.SseHeartbeat;
+import demo.sse.server.common.sse.SseStatistics;
+import demo.sse.server.common.sse.SubscriberRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+class SseSubscriber implements Runnable, SseHeartbeat.Target {
+
+    private static final Logger logger = LoggerFactory.getLogger(SseSubscriber.class);
+
+    private static final int DRAIN_BATCH_SIZE = 32;
+
+    private static final SseFrameEvent PING = new SseFrameEvent(SseHeartbeat.PING);
+
+    private final SseEmitter emitter;
+    private final SseDispatcher dispatcher;
+    private final SseStatistics.Connection connection;
+    private final SseCompression.Stream compression;
+    private final LongAdder writtenBytes;
+    private final Consumer<SseSubscriber> onClose;
+
+    private final Deque<SseFrameEvent> queue = new ArrayDeque<>();
+    private boolean scheduled;
+    private boolean held;
+    private boolean closed;
+
+    private volatile long lastWriteNanos = System.nanoTime();
+    private volatile SubscriberRegistry.Registration registration;
+    private volatile ScheduledFuture<?> expiry;
+
+    SseSubscriber(SseEmitter emitter, SseDispatcher dispatcher, SseStatistics.Connection connection,
+                  LongAdder writtenBytes, Consumer<SseSubscriber> onClose) {
+        this.emitter = emitter;
+        this.dispatcher = dispatcher;
+        this.connection = connection;
+        this.compression = dispatcher.negotiateCompression(connection);
+        this.writtenBytes = writtenBytes;
+        this.onClose = onClose;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    boolean isCompressed() {
+        return compression != null;
+    }
+
+    void setExpiry(ScheduledFuture<?> expiry) {
+        this.expiry = expiry;
+        synchronized (this) {
+            if (!closed) {
+                return;
+            }
+        }
+        expiry.cancel(false);
+    }
+
+    void expire() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+        }
+        logger.info("Emitter completed before async timeout: {}", emitter);
+        complete();
+        onClose.accept(this);
+    }
+
+    void register(SubscriberRegistry<SseSubscriber> registry) {
+        registration = registry.add(this);
+        synchronized (this) {
+            if (!closed) {
+                return;
+            }
+        }
+        unregister();
+    }
+
+    void unregister() {
+        SubscriberRegistry.Registration registration = this.registration;
+        if (registration != null) {
+            registration.remove();
+        }
+    }
+
+    synchronized void hold() {
+        held = true;
+    }
+
+    void write(SseFrame frame) throws IOException {
+        send(frame);
+        lastWriteNanos = System.nanoTime();
+        connection.sent(frame);
+    }
+
+    void release(long lastTime) {
+        synchronized (this) {
+            held = false;
+            queue.removeIf(event -> event.getTime() <= lastTime);
+            if (closed || scheduled || queue.isEmpty()) {
+                return;
+            }
+            scheduled = true;
+        }
+        dispatcher.execute(this);
+    }
+
+    void preload(List<SseFrame> frames) {
+        for (SseFrame frame : frames) {
+            if (!offer(new SseFrameEvent(frame))) {
+                return;
+            }
+        }
+    }
+
+    boolean offer(SseFrameEvent event) {
+        boolean schedule = false;
+        boolean overflowed = false;
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+
+            if (queue.size() >= dispatcher.getQueueCapacity()) {
+                OverflowPolicy overflowPolicy = dispatcher.getOverflowPolicy();
+                if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+                    closed = true;
+                    overflowed = true;
+                    queue.clear();
+                } else if (overflowPolicy == OverflowPolicy.COALESCE_LATEST) {
+                    queue.clear();
+                } else {
+                    queue.pollFirst();
+                }
+            }
+
+            if (!overflowed) {
+                queue.addLast(event);
+                schedule = !scheduled && !held;
+                scheduled |= schedule;
+            }
+        }
+
+        if (overflowed) {
+            connection.close();
+            logger.info("Emitter overflowed: {}", emitter);
+            finish();
+            emitter.complete();
+            onClose.accept(this);
+            return false;
+        }
+
+        if (schedule) {
+            dispatcher.execute(this);
+        }
+        return true;
+    }
+
+    @Override
+    public long getLastWriteNanos() {
+        return lastWriteNanos;
+    }
+
+    @Override
+    public boolean ping() {
+        return offer(PING);
+    }
+
+    void complete() {
+        close();
+        finish();
+        emitter.complete();
+    }
+
+    void close() {
+        synchronized (this) {
+            closed = true;
+            queue.clear();
+        }
+        connection.close();
+        ScheduledFuture<?> expiry = this.expiry;
+        if (expiry != null) {
+            expiry.cancel(false);
+        }
+    }
+
+    @Override
+    public void run() {
+        for (int i = 0; i < DRAIN_BATCH_SIZE; i++) {
+            SseFrameEvent event;
+            synchronized (this) {
+                event = closed ? null : queue.pollFirst();
+                if (event == null) {
+                    scheduled = false;
+                    return;
+                }
+            }
+
+            try {
+                int bytes = send(event.getFrame());
+                lastWriteNanos = System.nanoTime();
+                if (event != PING) {
+                    connection.sent(event.getFrame());
+                    writtenBytes.add(bytes);
+                    event.written(bytes);
+                }
+            } catch (Exception e) {
+                close();
+                emitter.completeWithError(e);
+                onClose.accept(this);
+                logger.error("Emitter failed: {}", emitter, e);
+                return;
+            }
+        }
+
+        dispatcher.execute(this);
+    }
+
+    private int send(SseFrame frame) throws IOException {
+        if (compression == null) {
+            emitter.send(new EncodedEventBuilder(frame.getBytes()));
+            return frame.size();
+        }
+
+        synchronized (compression) {
+            if (compression.isFinished()) {
+                return 0;
+            }
+            byte[] bytes = compression.write(frame);
+            emitter.send(new EncodedEventBuilder(bytes));
+            return bytes.length;
+        }
+    }
+
+    private void finish() {
+        if (compression == null) {
+            return;
+        }
+
+        synchronized (compression) {
+            byte[] trailer = compression.finish();
+            if (trailer.length == 0) {
+                return;
+            }
+            try {
+                emitter.send(new EncodedEventBuilder(trailer));
+            } catch (Exception e) {
+                logger.debug("Compressed stream trailer can't be written: {}", emitter, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package demo.sse.server.web.mvc.controller;
+
+import demo.sse.server.common.sse.SseTopic;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+class SseTopics {
+
+    private final Map<SseTopic, SseEmitters> emitters = new ConcurrentHashMap<>();
+
+    void register(SseTopic topic, SseEmitters topicEmitters) {
+        emitters.put(topic, topicEmitters);
+    }
+
+    SseEmitters get(SseTopic topic) {
+        SseEmitters topicEmitters = emitters.get(topic);
+        if (topicEmitters == null) {
+            throw new IllegalStateException("Topic is not registered: " + topic.getName());
+        }
+        return topicEmitters;
+    }
+}
@@ -0,0 +1,96 @@
+package demo.sse.server.web.mvc.controller;
+
+import demo.sse.server.common.sse.SseAdmission;
+import demo.sse.server.common.sse.SseFrameEncoder;
+import demo.sse.server.common.sse.SseStatistics;
+import demo.sse.server.common.sse.SseTopic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@RestController
+@RequestMapping("/sse/mvc")
+public class StreamController {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamController.class);
+
+    private final SseTopics topics;
+    private final SseFrameEncoder encoder;
+    private final SseDispatcher dispatcher;
+    private final SseAdmission admission;
+
+    private final Map<String, SseStream> streams = new ConcurrentHashMap<>();
+    private final LongAdder writtenBytes = new LongAdder();
+
+    StreamController(SseTopics topics, SseFrameEncoder encoder, SseDispatcher dispatcher, SseAdmission admission) {
+        this.topics = topics;
+        this.encoder = encoder;
+        this.dispatcher = dispatcher;
+        this.admission = admission;
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter getStream(@RequestParam(required = false) String topics) {
+        Set<SseTopic> parsed = parseTopics(topics);
+
+        SseStatistics.Connection connection = admission.admit("mvc/stream");
+        SseEmitter emitter = new SseEmitter();
+        SseStream stream = new SseStream(UUID.randomUUID().toString(), emitter, dispatcher, connection,
+                writtenBytes, this.topics, encoder, closed -> streams.remove(closed.getId()));
+        streams.put(stream.getId(), stream);
+        logger.info("Stream {} created with topics {}: {}", stream.getId(), SseTopic.getNames(parsed), emitter);
+
+        emitter.onCompletion(() -> {
+            logger.info("Stream {} completed: {}", stream.getId(), emitter);
+            stream.close();
+        });
+        emitter.onTimeout(() -> {
+            logger.info("Stream {} timed out: {}", stream.getId(), emitter);
+            stream.close();
+            stream.getSubscriber().complete();
+        });
+
+        stream.update(parsed, Collections.emptySet());
+        dispatcher.keepAlive(stream.getSubscriber());
+        return emitter;
+    }
+
+    @PostMapping(path = "/stream/{id}/topics")
+    List<String> updateStreamTopics(@PathVariable String id,
+                                    @RequestParam(required = false) String add,
+                                    @RequestParam(required = false) String remove) {
+        Set<SseTopic> added = parseTopics(add);
+        Set<SseTopic> removed = parseTopics(remove);
+
+        SseStream stream = streams.get(id);
+        if (stream == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Stream is not found: " + id);
+        }
+        return SseTopic.getNames(stream.update(added, removed));
+    }
+
+    private static Set<SseTopic> parseTopics(String topics) {
+        try {
+            return SseTopic.parse(topics);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
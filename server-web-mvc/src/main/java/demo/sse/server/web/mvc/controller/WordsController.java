@@ -1,16 +1,23 @@
 package demo.sse.server.web.mvc.controller;
 
+import demo.sse.server.common.sse.EventJournals;
+import demo.sse.server.common.sse.SseAdmission;
+import demo.sse.server.common.sse.SseFrameEncoder;
+import demo.sse.server.common.sse.SseTopic;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.concurrent.ExecutorService;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 @RestController
@@ -21,35 +28,59 @@ public class WordsController {
 
     private static final String[] WORDS = "The quick brown fox jumps over the lazy dog.".split(" ");
 
-    private final ExecutorService cachedThreadPool = Executors.newCachedThreadPool();
+    private final SseDispatcher dispatcher;
+    private final SseFrameEncoder frameEncoder;
+    private final ScheduledExecutorService scheduledThreadPool;
+    private final SseEmitters wordEmitters;
+    private final SseEmitters topicEmitters;
+
+    private int topicWord;
+
+    WordsController(SseAdmission admission, EventJournals journals, SseDispatcher dispatcher, SseTopics topics, SseFrameEncoder frameEncoder) {
+        this.dispatcher = dispatcher;
+        this.frameEncoder = frameEncoder;
+        this.scheduledThreadPool = Executors.newScheduledThreadPool(1, new CustomizableThreadFactory("sse-words-"));
+        this.wordEmitters = new SseEmitters(journals.get("mvc/words"), dispatcher, admission);
+        this.topicEmitters = new SseEmitters(journals.get("mvc/stream/words"), dispatcher, admission);
+        topics.register(SseTopic.WORDS, topicEmitters);
+    }
+
+    @PostConstruct
+    void init() {
+        scheduledThreadPool.scheduleAtFixedRate(() -> {
+            topicEmitters.send(WORDS[topicWord]);
+            topicWord = (topicWord + 1) % WORDS.length;
+        }, 0, 5, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void destroy() {
+        scheduledThreadPool.shutdownNow();
+    }
 
     @GetMapping(path = "/words", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     SseEmitter getWords(@RequestHeader(name = "Last-Event-ID", required = false) String lastId) {
         logger.info("Id of last received event: {}", lastId);
 
-        SseEmitter emitter = new SseEmitter();
-        logger.info("Emitter created: {}", emitter);
-
-        cachedThreadPool.execute(() -> {
-            try {
-                for (int i = parseLastId(lastId); i < WORDS.length; i++) {
-                    emitter.send(
-                            SseEmitter.event()
-                                    .id(String.valueOf(i))
-                                    .data(WORDS[i])
-                    );
-                    TimeUnit.SECONDS.sleep(5);
-                }
-
-                emitter.complete();
-                logger.info("Emitter completed: {}", emitter);
-            } catch (Exception e) {
-                emitter.completeWithError(e);
-                logger.error("Emitter failed: {}", emitter, e);
+        SseSubscriber subscriber = wordEmitters.open(new SseEmitter(), "mvc/words");
+        logger.info("Emitter created: {}", subscriber.getEmitter());
+
+        schedule(subscriber, parseLastId(lastId), 0);
+        return subscriber.getEmitter();
+    }
+
+    private void schedule(SseSubscriber subscriber, int word, long delaySeconds) {
+        scheduledThreadPool.schedule(() -> {
+            if (word >= WORDS.length) {
+                dispatcher.execute(subscriber::complete);
+                logger.info("Emitter completed: {}", subscriber.getEmitter());
+                return;
             }
-        });
 
-        return emitter;
+            if (subscriber.offer(new SseFrameEvent(frameEncoder.encode(String.valueOf(word), WORDS[word])))) {
+                schedule(subscriber, word + 1, 5);
+            }
+        }, delaySeconds, TimeUnit.SECONDS);
     }
 
     private int parseLastId(String lastId) {